@@ -0,0 +1,81 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.controller.EmployeeController;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.support.EmployeeChangeFeed;
+import net.javaguides.springboot.service.support.EmployeeWriteBehind;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// EmployeeController request dispatch through MockMvc: handler mapping, argument resolution,
+// message conversion and the service, without a servlet container or socket
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EmployeeControllerBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setup() {
+        EmployeeRepository employeeRepository = InMemoryEmployeeRepository.create();
+        EmployeeFixtures.employees("employee", ROWS).forEach(employeeRepository::save);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        EmployeeController controller = new EmployeeController(EmployeeFixtures.employeeService(employeeRepository),
+                objectMapper, new StaticListableBeanFactory().getBeanProvider(EmployeeWriteBehind.class),
+                new EmployeeChangeFeed(objectMapper, 10_000, 1_000, 200, Duration.ofSeconds(15), Duration.ofMinutes(30)));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getEmployeeById() throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", ThreadLocalRandom.current().nextLong(1, ROWS + 1)))
+                .andReturn()
+                .getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getAllEmployees() throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                        .param("after", String.valueOf(ThreadLocalRandom.current().nextLong(ROWS))))
+                .andReturn()
+                .getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse patchEmployee() throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", ThreadLocalRandom.current().nextLong(1, ROWS + 1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ramesh\"}"))
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -0,0 +1,84 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.config.EmployeeJsonModule;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
+import net.javaguides.springboot.service.support.EmailBloomFilter;
+import net.javaguides.springboot.service.support.EmployeeListSnapshot;
+import net.javaguides.springboot.service.support.EmployeeSearchIndex;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// shared setup of the benchmarks: a service wired like the application context would, minus the database
+final class EmployeeFixtures {
+
+    private EmployeeFixtures() {
+    }
+
+    static List<Employee> employees(String prefix, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email(prefix + i + "@gmail.com")
+                    .build());
+        }
+        return employees;
+    }
+
+    // the email filter and the search index are loaded from the repository as on startup, so new emails skip
+    // the duplicate lookup; the index is kept current from the change events as in the application
+    static EmployeeServiceImpl employeeService(EmployeeRepository employeeRepository) {
+        EmailBloomFilter emailFilter = new EmailBloomFilter(employeeRepository, new NoTransactionManager(), 1_000_000, 0.01);
+        emailFilter.load();
+        EmployeeSearchIndex searchIndex = searchIndex(employeeRepository);
+        EmployeeListSnapshot listSnapshot = listSnapshot(employeeRepository);
+        return new EmployeeServiceImpl(employeeRepository, InMemoryEmployeeRepository.entityManager(), emailFilter,
+                searchIndex, listSnapshot, event -> {
+                    searchIndex.onEmployeeChanged((EmployeeChangedEvent) event);
+                    listSnapshot.onEmployeeChanged((EmployeeChangedEvent) event);
+                },
+                new ConcurrentMapCacheManager(EmployeeServiceImpl.EMPLOYEE_CACHE));
+    }
+
+    // rebuilt on its own thread after writes, as in the application
+    static EmployeeListSnapshot listSnapshot(EmployeeRepository employeeRepository) {
+        EmployeeListSnapshot listSnapshot = new EmployeeListSnapshot(employeeRepository, new NoTransactionManager(),
+                Jackson2ObjectMapperBuilder.json().modulesToInstall(new EmployeeJsonModule()).build(), Duration.ofSeconds(1));
+        listSnapshot.load();
+        return listSnapshot;
+    }
+
+    static EmployeeSearchIndex searchIndex(EmployeeRepository employeeRepository) {
+        EmployeeSearchIndex searchIndex = new EmployeeSearchIndex(employeeRepository, new NoTransactionManager());
+        searchIndex.load();
+        return searchIndex;
+    }
+
+    private static final class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
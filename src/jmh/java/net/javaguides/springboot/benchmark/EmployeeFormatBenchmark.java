@@ -0,0 +1,81 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import net.javaguides.springboot.config.EmployeeJsonModule;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON against CBOR for the list response (encode) and the bulk create body (decode), with the mappers
+// configured as in the application (CborConfig). The payload size of each format is printed by the setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeFormatBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ObjectWriter viewListWriter;
+
+    private ObjectReader listReader;
+
+    private List<EmployeeView> views;
+
+    private byte[] employeesPayload;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonFactory factory = format.equals("cbor") ? new CBORFactory() : new JsonFactory();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .modulesToInstall(new EmployeeJsonModule())
+                .build();
+        viewListWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeView.class));
+        listReader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+        List<Employee> employees = EmployeeFixtures.employees("employee", size);
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setId(i + 1);
+        }
+        views = employees.stream().map(EmployeeView::from).toList();
+        employeesPayload = objectMapper.writeValueAsBytes(employees);
+        System.out.printf("%n%s payload of %d employees: %d bytes%n", format, size, employeesPayload.length);
+    }
+
+    // GET /api/employees response
+    @Benchmark
+    public byte[] encodeViews() throws IOException {
+        return viewListWriter.writeValueAsBytes(views);
+    }
+
+    // POST /api/employees/bulk request body
+    @Benchmark
+    public List<Employee> decodeEmployees() throws IOException {
+        return listReader.readValue(employeesPayload);
+    }
+}
@@ -0,0 +1,91 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.javaguides.springboot.config.EmployeeJsonModule;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of employee lists, as written by the list and bulk endpoints, and reading of a bulk
+// request body; bean uses Jackson's reflective bean (de)serializers, module the hand-written EmployeeJsonModule.
+// Allocation per operation is in the gc profiler's gc.alloc.rate.norm column.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EmployeeJsonBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    @Param({"bean", "module"})
+    private String mapper;
+
+    private ObjectWriter listWriter;
+
+    private ObjectWriter viewListWriter;
+
+    private ObjectReader listReader;
+
+    private List<Employee> employees;
+
+    private List<EmployeeView> views;
+
+    private byte[] employeesJson;
+
+    @Setup
+    public void setup() throws IOException {
+        // configured like the ObjectMapper Spring Boot gives the message converters
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (mapper.equals("module")) {
+            builder.modulesToInstall(new EmployeeJsonModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+        viewListWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeView.class));
+        listReader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+        employees = EmployeeFixtures.employees("employee", size);
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setId(i + 1);
+        }
+        views = employees.stream().map(EmployeeView::from).toList();
+        employeesJson = listWriter.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployees() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(employees);
+    }
+
+    // list, search and multi-get responses
+    @Benchmark
+    public byte[] serializeViews() throws JsonProcessingException {
+        return viewListWriter.writeValueAsBytes(views);
+    }
+
+    // bulk create request body
+    @Benchmark
+    public List<Employee> deserializeEmployees() throws IOException {
+        return listReader.readValue(employeesJson);
+    }
+}
@@ -0,0 +1,79 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.dto.EmployeeSearchResult;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.support.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Query latency of the search index over realistic names: a small vocabulary of first and last names,
+// so common tokens have long posting lists, and emails that are unique per employee.
+// run it with: mvn -Pjmh test-compile exec:exec -Djmh.args="EmployeeSearchBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class EmployeeSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Ramesh", "Suresh", "Mahesh", "Rajesh", "Priya", "Anita", "John",
+            "Maria", "José", "Wei", "Fatima", "Olga", "Kenji", "Amara", "Lucas", "Sofia", "Ahmed", "Chen", "Ivan", "Nora"};
+
+    private static final String[] LAST_NAMES = {"Fadatare", "Kumar", "Sharma", "Basya", "Cena", "Garcia", "Müller",
+            "Smith", "Nguyen", "Tanaka", "Okafor", "Rossi", "Novak", "Silva", "Kowalski", "Haddad", "Larsen", "Li"};
+
+    @Param("1000000")
+    private int rows;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @Setup
+    public void setup() {
+        EmployeeRepository employeeRepository = InMemoryEmployeeRepository.create();
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            employeeRepository.save(Employee.builder()
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@example.com")
+                    .build());
+        }
+        searchIndex = EmployeeFixtures.searchIndex(employeeRepository);
+    }
+
+    // one employee by the number in its email
+    @Benchmark
+    public Optional<EmployeeSearchResult> searchUniqueEmail() {
+        return searchIndex.search("kumar" + ThreadLocalRandom.current().nextInt(rows), 0, 20);
+    }
+
+    // first page of a full name shared by about rows / 360 employees
+    @Benchmark
+    public Optional<EmployeeSearchResult> searchFullName() {
+        return searchIndex.search("ramesh fadatare", 0, 20);
+    }
+
+    // first page of a rare substring, no posting list is short but their intersection is
+    @Benchmark
+    public Optional<EmployeeSearchResult> searchSubstring() {
+        return searchIndex.search("kowal 4242", 0, 20);
+    }
+}
@@ -0,0 +1,75 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Slice;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// EmployeeServiceImpl over an in-memory repository: the cost of the service logic itself
+// (duplicate checks, email filter, paging, event publishing) without the database round trips.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EmployeeServiceBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeService employeeService;
+
+    private long created;
+
+    // a fresh table per iteration, so saveEmployee does not measure an ever growing map
+    @Setup(Level.Iteration)
+    public void setup() {
+        employeeRepository = InMemoryEmployeeRepository.create();
+        EmployeeFixtures.employees("employee", ROWS).forEach(employeeRepository::save);
+        employeeService = EmployeeFixtures.employeeService(employeeRepository);
+        created = 0;
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        return employeeService.saveEmployee(Employee.builder()
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("new" + created++ + "@gmail.com")
+                .build());
+    }
+
+    @Benchmark
+    public Slice<EmployeeView> getEmployees() {
+        return employeeService.getEmployees(ThreadLocalRandom.current().nextLong(ROWS), EmployeeService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeViewById() {
+        return employeeService.getEmployeeViewById(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+    }
+
+    @Benchmark
+    public Optional<Long> patchEmployee() {
+        return employeeService.patchEmployee(ThreadLocalRandom.current().nextLong(1, ROWS + 1),
+                Employee.builder().firstName("Ramesh").build(), null);
+    }
+}
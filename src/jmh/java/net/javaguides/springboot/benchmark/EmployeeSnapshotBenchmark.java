@@ -0,0 +1,102 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.javaguides.springboot.config.EmployeeJsonModule;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.support.EmployeeListSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serving the whole list per call: serializing it on every request (and gzipping it, as server.compression
+// would) against copying the pre-built snapshot to the response; rebuild is the cost paid once per burst of writes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSnapshotBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private EmployeeRepository employeeRepository;
+
+    private ObjectWriter viewWriter;
+
+    private EmployeeListSnapshot listSnapshot;
+
+    @Setup
+    public void setup() {
+        employeeRepository = InMemoryEmployeeRepository.create();
+        EmployeeFixtures.employees("employee", rows).forEach(employeeRepository::save);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new EmployeeJsonModule()).build();
+        viewWriter = objectMapper.writerFor(EmployeeView.class);
+        listSnapshot = EmployeeFixtures.listSnapshot(employeeRepository);
+    }
+
+    @TearDown
+    public void tearDown() {
+        listSnapshot.destroy();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        writeList(response);
+        return response.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipList() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(response)) {
+            writeList(gzip);
+        }
+        return response.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serveSnapshot() throws IOException {
+        byte[] gzippedJson = listSnapshot.get().orElseThrow().gzippedJson();
+        ByteArrayOutputStream response = new ByteArrayOutputStream(gzippedJson.length);
+        response.write(gzippedJson);
+        return response.toByteArray();
+    }
+
+    @Benchmark
+    public int rebuild() {
+        listSnapshot.rebuild();
+        return listSnapshot.get().orElseThrow().gzippedJson().length;
+    }
+
+    private void writeList(OutputStream out) throws IOException {
+        try (JsonGenerator generator = viewWriter.createGenerator(out)) {
+            generator.writeStartArray();
+            for (EmployeeView employee : (Iterable<EmployeeView>) employeeRepository.streamAllViews()::iterator) {
+                viewWriter.writeValue(generator, employee);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
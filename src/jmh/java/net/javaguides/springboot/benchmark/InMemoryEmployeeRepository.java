@@ -0,0 +1,152 @@
+package net.javaguides.springboot.benchmark;
+
+import jakarta.persistence.EntityManager;
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Map backed stand-in for the JPA repository, so the benchmarks measure the service and web code
+// rather than the database. Only the methods EmployeeServiceImpl calls are implemented.
+final class InMemoryEmployeeRepository {
+
+    private final ConcurrentSkipListMap<Long, Employee> employees = new ConcurrentSkipListMap<>();
+
+    // unique index on email
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private InMemoryEmployeeRepository() {
+    }
+
+    static EmployeeRepository create() {
+        InMemoryEmployeeRepository repository = new InMemoryEmployeeRepository();
+        return (EmployeeRepository) Proxy.newProxyInstance(EmployeeRepository.class.getClassLoader(),
+                new Class<?>[]{EmployeeRepository.class}, (proxy, method, args) -> repository.invoke(method, args));
+    }
+
+    // persistence context operations are no-ops without a persistence context
+    static EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "save", "saveAndFlush" -> save((Employee) args[0]);
+            case "flush" -> null;
+            case "findById" -> Optional.ofNullable(employees.get((Long) args[0]));
+            case "findViewById" -> Optional.ofNullable(employees.get((Long) args[0])).map(EmployeeView::from);
+            case "findViewsByIdIn" -> ((Collection<Long>) args[0]).stream()
+                    .map(employees::get)
+                    .filter(employee -> employee != null)
+                    .map(EmployeeView::from)
+                    .toList();
+            case "findVersionById" -> Optional.ofNullable(employees.get((Long) args[0])).map(Employee::getVersion);
+            case "findByEmail" -> Optional.ofNullable(idsByEmail.get((String) args[0])).map(employees::get);
+            case "findByEmailIn" -> ((Collection<String>) args[0]).stream()
+                    .map(idsByEmail::get)
+                    .filter(id -> id != null)
+                    .map(employees::get)
+                    .toList();
+            case "findViewsByNameIn" -> ((Collection<EmployeeName>) args[0]).stream()
+                    .distinct()
+                    .flatMap(name -> employees.values().stream()
+                            .filter(employee -> employee.getFirstName().equals(name.firstName())
+                                    && employee.getLastName().equals(name.lastName())))
+                    .map(EmployeeView::from)
+                    .toList();
+            case "findViewsByIdGreaterThanOrderByIdAsc" -> page((Long) args[0], (Pageable) args[1]).map(EmployeeView::from);
+            case "findAll" -> new ArrayList<>(employees.values());
+            case "streamAll" -> employees.values().stream();
+            case "streamAllEmails" -> employees.values().stream().map(Employee::getEmail);
+            case "streamAllViews" -> employees.values().stream().map(EmployeeView::from);
+            case "updatePartially" -> updatePartially((Long) args[0], (Long) args[1], (String) args[2], (String) args[3], (String) args[4]);
+            case "deleteEmployeeById" -> delete((Long) args[0]);
+            case "deleteEmployeesByIdIn" -> ((Collection<Long>) args[0]).stream().filter(id -> delete(id) == 1).toList();
+            case "deleteAll", "deleteAllInBatch" -> {
+                employees.clear();
+                idsByEmail.clear();
+                yield null;
+            }
+            case "count" -> (long) employees.size();
+            case "hashCode" -> System.identityHashCode(this);
+            case "equals" -> false;
+            case "toString" -> "InMemoryEmployeeRepository";
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private Employee save(Employee employee) {
+        if (employee.getId() == 0) {
+            employee.setId(ids.incrementAndGet());
+        } else {
+            employee.setVersion(employee.getVersion() + 1);
+        }
+        employees.put(employee.getId(), employee);
+        idsByEmail.put(employee.getEmail(), employee.getId());
+        return employee;
+    }
+
+    private Slice<Employee> page(long after, Pageable pageable) {
+        List<Employee> content = new ArrayList<>(pageable.getPageSize());
+        boolean hasNext = false;
+        for (Employee employee : employees.tailMap(after, false).values()) {
+            if (content.size() == pageable.getPageSize()) {
+                hasNext = true;
+                break;
+            }
+            content.add(employee);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private Optional<Long> updatePartially(long id, Long expectedVersion, String firstName, String lastName, String email) {
+        Employee employee = employees.get(id);
+        if (employee == null) {
+            return Optional.empty();
+        }
+        if (expectedVersion != null && employee.getVersion() != expectedVersion) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        if (firstName != null) {
+            employee.setFirstName(firstName);
+        }
+        if (lastName != null) {
+            employee.setLastName(lastName);
+        }
+        if (email != null) {
+            idsByEmail.remove(employee.getEmail());
+            employee.setEmail(email);
+            idsByEmail.put(email, id);
+        }
+        employee.setVersion(employee.getVersion() + 1);
+        return Optional.of(employee.getVersion());
+    }
+
+    private int delete(long id) {
+        Employee employee = employees.remove(id);
+        if (employee == null) {
+            return 0;
+        }
+        idsByEmail.remove(employee.getEmail());
+        return 1;
+    }
+}
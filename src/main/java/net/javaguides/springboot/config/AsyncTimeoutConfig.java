@@ -0,0 +1,41 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+// spring.mvc.async.request-timeout stays the timeout of async responses in general, a handler whose response
+// legitimately runs for as long as the data takes (the NDJSON export) sets its own in TIMEOUT_ATTRIBUTE.
+// Once the container times a streamed response out it is closed like a complete one, so the client
+// cannot tell a truncated body from a finished one.
+@Configuration
+@Profile("!reactive")
+public class AsyncTimeoutConfig implements WebMvcConfigurer {
+
+    // request attribute with the timeout in milliseconds of the StreamingResponseBody the handler returns, NO_TIMEOUT for none
+    public static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutConfig.class.getName() + ".timeout";
+
+    public static final long NO_TIMEOUT = -1;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+
+            // runs before the async processing starts, while the timeout can still be changed
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Long millis && request instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(millis);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package net.javaguides.springboot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// CBOR (RFC 8949, application/cbor) for service-to-service callers: sent with Accept: application/cbor,
+// read with Content-Type: application/cbor, same fields as the JSON, described by schema/employee.cddl.
+// The mapper comes from Spring Boot's builder, so spring.jackson.* and EmployeeJsonModule apply as for JSON.
+@Configuration
+@Profile("!reactive")
+public class CborConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper cborMapper;
+
+    public CborConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+    }
+
+    // appended after the JSON converter, so clients without an Accept header keep getting JSON;
+    // replaces the converter Spring MVC adds on its own, which would use a plain ObjectMapper
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+    }
+}
@@ -0,0 +1,129 @@
+package net.javaguides.springboot.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// Hand-written streaming (de)serializers for the two types on the hot JSON paths: Employee (create, bulk,
+// export) and EmployeeView (list, get, search, multi-get). They write the same JSON as Jackson's bean
+// serializers, straight to the generator with pre-encoded field names, instead of going through the
+// reflective property writers. Spring Boot registers every Module bean with its ObjectMapper, so the
+// MVC and WebFlux message converters and EmployeeController's export writer all use them.
+// EmployeeJsonModuleTest compares the output with the bean serializers, so a new field fails there.
+@Component
+public class EmployeeJsonModule extends SimpleModule {
+
+    private static final SerializableString ID = new SerializedString("id");
+
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+
+    private static final SerializableString EMAIL = new SerializedString("email");
+
+    public EmployeeJsonModule() {
+        super(EmployeeJsonModule.class.getSimpleName());
+        addSerializer(Employee.class, new EmployeeSerializer());
+        addSerializer(EmployeeView.class, new EmployeeViewSerializer());
+        addDeserializer(Employee.class, new EmployeeDeserializer());
+    }
+
+    // version is left out, it is @JsonIgnore on both types and sent as the ETag instead
+    private static void writeFields(JsonGenerator generator, long id, String firstName, String lastName, String email)
+            throws IOException {
+        generator.writeFieldName(ID);
+        generator.writeNumber(id);
+        writeString(generator, FIRST_NAME, firstName);
+        writeString(generator, LAST_NAME, lastName);
+        writeString(generator, EMAIL, email);
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    static final class EmployeeSerializer extends StdSerializer<Employee> {
+
+        EmployeeSerializer() {
+            super(Employee.class);
+        }
+
+        @Override
+        public void serialize(Employee employee, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(employee);
+            writeFields(generator, employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+            generator.writeEndObject();
+        }
+    }
+
+    static final class EmployeeViewSerializer extends StdSerializer<EmployeeView> {
+
+        EmployeeViewSerializer() {
+            super(EmployeeView.class);
+        }
+
+        @Override
+        public void serialize(EmployeeView employee, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(employee);
+            writeFields(generator, employee.id(), employee.firstName(), employee.lastName(), employee.email());
+            generator.writeEndObject();
+        }
+    }
+
+    // reads the fields as they stream by, unknown fields and the ignored version are skipped
+    // like the bean deserializer does with Spring Boot's FAIL_ON_UNKNOWN_PROPERTIES=false
+    static final class EmployeeDeserializer extends StdDeserializer<Employee> {
+
+        EmployeeDeserializer() {
+            super(Employee.class);
+        }
+
+        @Override
+        public Employee deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartObjectToken()) {
+                return (Employee) context.handleUnexpectedToken(Employee.class, parser);
+            }
+            Employee employee = new Employee();
+            for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+                parser.nextToken();
+                switch (name) {
+                    case "id" -> employee.setId(_parseLongPrimitive(parser, context));
+                    case "firstName" -> employee.setFirstName(readString(parser, context));
+                    case "lastName" -> employee.setLastName(readString(parser, context));
+                    case "email" -> employee.setEmail(readString(parser, context));
+                    default -> parser.skipChildren();
+                }
+            }
+            return employee;
+        }
+
+        private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                return parser.getText();
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            // numbers, booleans and the like are coerced or rejected as configured
+            return context.readValue(parser, String.class);
+        }
+    }
+}
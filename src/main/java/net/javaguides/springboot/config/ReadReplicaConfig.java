@@ -0,0 +1,77 @@
+package net.javaguides.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read/write splitting, only set up when employees.datasource.replica-urls is configured.
+// Read-only transactions take their connection from a replica, everything else from spring.datasource.url.
+// The connection is only fetched on the first statement, once the transaction is known to be read-only.
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employees.datasource.replica-urls")
+public class ReadReplicaConfig implements DisposableBean {
+
+    // the pools are not beans of their own, so they are closed here
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${employees.datasource.replica-urls}") List<String> replicaUrls) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(properties, properties.determineUrl(), "primary", binder, meterRegistry);
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(pool(properties, replicaUrls.get(i).trim(), "replica-" + i, binder, meterRegistry));
+        }
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas));
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${employees.datasource.read-your-writes-window:2s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    // every pool gets the spring.datasource.hikari.* settings and its own hikaricp.* metrics, tagged with the pool name
+    private HikariDataSource pool(DataSourceProperties properties, String url, String name, Binder binder,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        pools.add(pool);
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
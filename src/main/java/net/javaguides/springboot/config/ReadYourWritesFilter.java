@@ -0,0 +1,70 @@
+package net.javaguides.springboot.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Keeps a client on the primary for a while after its own write, so it does not read back from a replica
+// that has not caught up yet. The time of the last write travels in a cookie, no state is shared between
+// instances. Write requests themselves are pinned as well, for the reads they make before writing.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String LAST_WRITE_COOKIE = "employees-last-write";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write && !window.isZero()) {
+            // set before the chain runs, the response may already be committed afterwards
+            Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.plusMillis(999).toSeconds()));
+            response.addCookie(cookie);
+        }
+        if (!write && !wroteWithinWindow(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private boolean wroteWithinWindow(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return now - Long.parseLong(cookie.getValue()) < window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
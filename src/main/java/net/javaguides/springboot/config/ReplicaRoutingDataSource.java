@@ -0,0 +1,58 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// DataSource of the read-only transactions (see ReadReplicaConfig): connections come from the replica
+// pools in turn, or from the primary while the current thread is pinned to it by ReadYourWritesFilter.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final List<String> replicaKeys;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<String> keys = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            keys.add(key);
+        }
+        this.replicaKeys = List.copyOf(keys);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty() || isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+}
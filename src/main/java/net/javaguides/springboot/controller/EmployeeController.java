@@ -1,59 +1,448 @@
 package net.javaguides.springboot.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import net.javaguides.springboot.config.AsyncTimeoutConfig;
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeSnapshot;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.dto.PendingEmployee;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.support.EmployeeChangeFeed;
+import net.javaguides.springboot.service.support.EmployeeWriteBehind;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    private static final String CBOR_ETAG_SUFFIX = "-cbor";
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private ObjectWriter employeeWriter;
+
+    // only present when employees.write-behind.enabled=true
+    private EmployeeWriteBehind writeBehind;
+
+    private EmployeeChangeFeed changeFeed;
+
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper,
+                              ObjectProvider<EmployeeWriteBehind> writeBehind, EmployeeChangeFeed changeFeed) {
         this.employeeService = employeeService;
+        this.changeFeed = changeFeed;
+        this.employeeWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.writeBehind = writeBehind.getIfAvailable();
     }
 
+    // in write-behind mode the create is only queued: 202 with the status URL, 429 while the queue is full
+    // and 503 once the application is shutting down
     @PostMapping
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee) {
+        if (writeBehind == null) {
+            return new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+        }
+        Optional<PendingEmployee> queued;
+        try {
+            queued = writeBehind.offer(employee);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        return queued
+                .<ResponseEntity<?>>map(pending -> ResponseEntity.accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                                .path("/api/employees/pending/{ticket}")
+                                .buildAndExpand(pending.ticket())
+                                .toUri())
+                        .body(pending))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    // status of a write-behind create, 404 once it is older than the retention or when the mode is off
+    @GetMapping("pending/{ticket}")
+    public ResponseEntity<PendingEmployee> getPendingEmployee(@PathVariable("ticket") UUID ticket) {
+        return Optional.ofNullable(writeBehind)
+                .flatMap(queue -> queue.getStatus(ticket))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("bulk")
     @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee) {
-        return employeeService.saveEmployee(employee);
+    public List<Employee> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
     }
 
+    // keyset pagination, the cursor of the next page is returned in the X-Next-Cursor and Link headers
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<EmployeeView>> getAllEmployees(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                              @RequestParam(name = "limit", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int limit,
+                                                              WebRequest webRequest) {
+        Slice<EmployeeView> page = employeeService.getEmployees(after, limit);
+        List<EmployeeView> employees = page.getContent();
+        MediaType mediaType = negotiatedType(webRequest);
+
+        HttpHeaders headers = new HttpHeaders();
+        // a repeated If-None-Match with this ETag is answered with 304 without writing the body
+        headers.setETag(pageETag(after, employees, mediaType));
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        if (mediaType != null) {
+            headers.setContentType(mediaType);
+        }
+        if (page.hasNext() && !employees.isEmpty()) {
+            long nextCursor = employees.get(employees.size() - 1).id();
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("limit", page.getSize())
+                    .toUriString();
+            headers.add("X-Next-Cursor", String.valueOf(nextCursor));
+            headers.add(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return new ResponseEntity<>(employees, headers, HttpStatus.OK);
     }
 
-    @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId) {
-        return employeeService.getEmployeeById(employeeId)
+    // multi-get, e.g. GET /api/employees?ids=3,1,2, employees in request order and the unknown ids in missing
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getEmployeesByIds(@RequestParam("ids") List<Long> employeeIds) {
+        return multiGet(employeeIds);
+    }
+
+    // same multi-get with the ids in a JSON array body, for id lists too long for a URL
+    @PostMapping("_mget")
+    public ResponseEntity<?> multiGetEmployees(@RequestBody List<Long> employeeIds) {
+        return multiGet(employeeIds);
+    }
+
+    private ResponseEntity<?> multiGet(List<Long> employeeIds) {
+        if (employeeIds.size() > EmployeeService.MAX_MULTI_GET_SIZE) {
+            return new ResponseEntity<>("At most " + EmployeeService.MAX_MULTI_GET_SIZE + " ids can be fetched at once",
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (employeeIds.contains(null)) {
+            return new ResponseEntity<>("Ids must not be null", HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(employeeService.getEmployeeViewsByIds(employeeIds));
+    }
+
+    // newline delimited JSON export, rows are written to the response as they are read from the database;
+    // it takes as long as the table is big, so spring.mvc.async.request-timeout does not apply to it
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees(WebRequest webRequest) {
+        webRequest.setAttribute(AsyncTimeoutConfig.TIMEOUT_ATTRIBUTE, AsyncTimeoutConfig.NO_TIMEOUT, RequestAttributes.SCOPE_REQUEST);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = employeeWriter.createGenerator(outputStream)) {
+                // lines are terminated explicitly, no separator between root values
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(employee -> writeLine(generator, employee));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // the whole list as one JSON array, served from the pre-serialized snapshot without a query or any
+    // serialization; it is rebuilt shortly after writes, so it can be a moment behind GET /api/employees.
+    // Clients accepting gzip get the stored bytes as they are, others get them decompressed on the fly.
+    @GetMapping("snapshot")
+    public ResponseEntity<?> getEmployeeSnapshot(WebRequest webRequest) {
+        Optional<EmployeeSnapshot> found = employeeService.getEmployeeSnapshot();
+        if (found.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        EmployeeSnapshot snapshot = found.get();
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // each content coding is a different representation and needs its own strong ETag
+        String eTag = "\"" + snapshot.eTag() + (gzip ? "-gzip" : "") + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(snapshot.gzippedJson().length)
+                    .body(snapshot.gzippedJson());
+        }
+        try {
+            // streamed through the decompressor, the uncompressed JSON is never held in memory
+            return response.body(new InputStreamResource(new GZIPInputStream(new ByteArrayInputStream(snapshot.gzippedJson()))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Server-Sent Events of committed creates, updates, patches and deletes, instead of polling the list;
+    // a reconnecting client sends Last-Event-ID and gets the changes it missed, or a reset event
+    @GetMapping(value = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId)
                 .map(ResponseEntity::ok)
+                // employees.changes.max-subscribers reached
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+
+    // ranked search over names and emails, X-Total-Count holds the number of matches over all pages
+    @GetMapping("search")
+    public ResponseEntity<List<EmployeeView>> searchEmployees(@RequestParam("q") String query,
+                                                              @RequestParam(name = "offset", defaultValue = "0") int offset,
+                                                              @RequestParam(name = "limit", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int limit) {
+        return employeeService.searchEmployees(query, offset, limit)
+                .map(result -> ResponseEntity.ok()
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .header("X-Total-Count", String.valueOf(result.total()))
+                        .body(result.employees()))
+                // the index is still being built after a restart
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    // batch lookup by name, e.g. POST /api/employees/lookup [{"firstName":"Ramesh","lastName":"Fadatare"}, ...],
+    // answered with all employees of each name from one query per few hundred names
+    @PostMapping("lookup")
+    public ResponseEntity<?> lookupEmployees(@RequestBody List<EmployeeName> names) {
+        if (names.size() > EmployeeService.MAX_LOOKUP_SIZE) {
+            return new ResponseEntity<>("At most " + EmployeeService.MAX_LOOKUP_SIZE + " names can be looked up at once",
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (names.stream().anyMatch(name -> name == null || name.firstName() == null || name.lastName() == null)) {
+            return new ResponseEntity<>("Every name needs a firstName and a lastName", HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(employeeService.lookupEmployees(names));
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<EmployeeView> getEmployeeById(@PathVariable("id") long employeeId, WebRequest webRequest,
+                                                        HttpServletResponse servletResponse) {
+        MediaType mediaType = negotiatedType(webRequest);
+        // set up front so a 304 carries it as well
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // conditional GET is answered from the version alone, the employee is neither loaded nor serialized
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = employeeService.getEmployeeVersion(employeeId);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (webRequest.checkNotModified(eTag(version.get(), mediaType))) {
+                return null;
+            }
+        }
+        return employeeService.getEmployeeViewById(employeeId)
+                .map(employee -> withContentType(ResponseEntity.ok(), mediaType)
+                        .eTag(eTag(employee.version(), mediaType))
+                        .body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // a write with If-Match only applies while the employee is still at that version, otherwise 412;
+    // both PUT and PATCH answer with the ETag of the new version for the next conditional write
     @PutMapping("{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee) {
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   WebRequest webRequest) {
+        Long expectedVersion = ifMatchVersion(ifMatch);
+        MediaType mediaType = negotiatedType(webRequest);
         return employeeService.getEmployeeById(employeeId)
                 .map(savedEmployee -> {
+                    if (expectedVersion != null && savedEmployee.getVersion() != expectedVersion) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+                    }
                     savedEmployee.setFirstName(employee.getFirstName());
                     savedEmployee.setLastName(employee.getLastName());
                     savedEmployee.setEmail(employee.getEmail());
 
                     Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                    return withContentType(ResponseEntity.ok(), mediaType)
+                            .eTag(eTag(updatedEmployee.getVersion(), mediaType))
+                            .body(updatedEmployee);
 
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // partial update, only the fields present in the body are changed
+    @PatchMapping("{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              WebRequest webRequest) {
+        // the ETag of the representation a GET with the same Accept header would return
+        MediaType mediaType = negotiatedType(webRequest);
+        return employeeService.patchEmployee(employeeId, employee, ifMatchVersion(ifMatch))
+                .map(version -> ResponseEntity.noContent().eTag(eTag(version, mediaType)).<Void>build())
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // another write changed the employee between reading and writing it, or it is no longer at the If-Match version:
+    // 412 for a conditional write, 409 for an unconditional one
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentUpdate(WebRequest webRequest) {
+        HttpStatus status = webRequest.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.CONFLICT;
+        return new ResponseEntity<>("Employee was modified concurrently, reload it and retry", status);
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId) {
-        employeeService.deleteEmployee(employeeId);
-        return new ResponseEntity<>("Employee Deleted Successfully", HttpStatus.OK);
+        if (employeeService.deleteEmployee(employeeId)) {
+            return new ResponseEntity<>("Employee Deleted Successfully", HttpStatus.OK);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // bulk delete, e.g. DELETE /api/employees?ids=1,2,3
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<String> deleteEmployees(@RequestParam("ids") Set<Long> employeeIds) {
+        if (employeeIds.size() > EmployeeService.MAX_BULK_DELETE_SIZE) {
+            return new ResponseEntity<>("At most " + EmployeeService.MAX_BULK_DELETE_SIZE + " ids can be deleted at once",
+                    HttpStatus.BAD_REQUEST);
+        }
+        int deleted = employeeService.deleteEmployees(employeeIds);
+        return new ResponseEntity<>(deleted + " Employees Deleted Successfully", HttpStatus.OK);
+    }
+
+    // true when gzip, or failing that *, is listed in Accept-Encoding without q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";", 2);
+            String name = parts[0].trim();
+            boolean accepted = parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            if (name.equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    // version named by If-Match, null without the header or for *; anything but a single ETag of ours,
+    // of either representation, becomes a version no employee has, so the write fails its precondition
+    private static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String version = tag.substring(1, tag.length() - 1);
+            if (version.endsWith(CBOR_ETAG_SUFFIX)) {
+                version = version.substring(0, version.length() - CBOR_ETAG_SUFFIX.length());
+            }
+            try {
+                return Long.parseLong(version);
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        return -1L;
+    }
+
+    // JSON and CBOR bodies of the same version are different representations, each needs its own strong ETag
+    private static String eTag(long version, MediaType mediaType) {
+        return "\"" + version + eTagSuffix(mediaType) + "\"";
+    }
+
+    // strong ETag of a list page, changes whenever an employee on the page is added, removed or updated
+    private static String pageETag(long after, List<EmployeeView> employees, MediaType mediaType) {
+        long hash = after;
+        for (EmployeeView employee : employees) {
+            hash = 31 * (31 * hash + employee.id()) + employee.version();
+        }
+        return "\"" + Long.toHexString(hash) + "-" + employees.size() + eTagSuffix(mediaType) + "\"";
+    }
+
+    private static String eTagSuffix(MediaType mediaType) {
+        return MediaType.APPLICATION_CBOR.equals(mediaType) ? CBOR_ETAG_SUFFIX : "";
+    }
+
+    // the type the message converters will pick for the Accept header: the first acceptable type by quality
+    // that JSON satisfies gives JSON, one only CBOR satisfies gives CBOR, like the converter order of CborConfig.
+    // It is set as the response content type, so the body is always the representation the ETag was built for;
+    // null when neither is acceptable, the converters then answer 406 as before.
+    private static MediaType negotiatedType(WebRequest webRequest) {
+        String[] accept = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable = new ArrayList<>(MediaType.parseMediaTypes(List.of(accept)));
+        if (acceptable.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity.BodyBuilder withContentType(ResponseEntity.BodyBuilder response, MediaType mediaType) {
+        return mediaType != null ? response.contentType(mediaType) : response;
+    }
+
+    private void writeLine(JsonGenerator generator, Employee employee) {
+        try {
+            employeeWriter.writeValue(generator, employee);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
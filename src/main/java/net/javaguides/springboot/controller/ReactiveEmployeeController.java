@@ -0,0 +1,97 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+// WebFlux version of EmployeeController with the same routes, replaces it in the reactive profile
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class ReactiveEmployeeController {
+
+    private ReactiveEmployeeService employeeService;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @PostMapping("bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<Employee> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    // keyset pagination, the page is streamed as it is read so there are no cursor headers:
+    // the id of the last employee is the cursor of the next page
+    @GetMapping
+    public Flux<Employee> getAllEmployees(@RequestParam(name = "after", defaultValue = "0") long after,
+                                          @RequestParam(name = "limit", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int limit) {
+        return employeeService.getEmployees(after, limit);
+    }
+
+    // newline delimited JSON export, a slow client slows down the database read instead of buffering rows
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Employee> exportEmployees() {
+        return employeeService.exportEmployees();
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId) {
+        // a matching If-None-Match is answered with 304 by the ETag handling of ResponseEntity
+        return employeeService.getEmployeeById(employeeId)
+                .map(employee -> ResponseEntity.ok().eTag("\"" + employee.getVersion() + "\"").body(employee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee) {
+        return employeeService.updateEmployee(employeeId, employee)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // partial update, only the fields present in the body are changed
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Void>> patchEmployee(@PathVariable("id") long employeeId, @RequestBody Employee employee) {
+        return employeeService.patchEmployee(employeeId, employee)
+                .map(patched -> patched
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long employeeId) {
+        return employeeService.deleteEmployee(employeeId)
+                .map(deleted -> deleted
+                        ? new ResponseEntity<>("Employee Deleted Successfully", HttpStatus.OK)
+                        : ResponseEntity.notFound().<String>build());
+    }
+
+    // bulk delete, e.g. DELETE /api/employees?ids=1,2,3
+    @DeleteMapping(params = "ids")
+    public Mono<ResponseEntity<String>> deleteEmployees(@RequestParam("ids") Set<Long> employeeIds) {
+        if (employeeIds.size() > EmployeeService.MAX_BULK_DELETE_SIZE) {
+            return Mono.just(new ResponseEntity<>("At most " + EmployeeService.MAX_BULK_DELETE_SIZE + " ids can be deleted at once",
+                    HttpStatus.BAD_REQUEST));
+        }
+        return employeeService.deleteEmployees(employeeIds)
+                .map(deleted -> new ResponseEntity<>(deleted + " Employees Deleted Successfully", HttpStatus.OK));
+    }
+}
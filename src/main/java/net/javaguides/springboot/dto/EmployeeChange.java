@@ -0,0 +1,20 @@
+package net.javaguides.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+
+// one entry of the change feed; CREATED and UPDATED carry all fields, PATCHED only the changed ones, DELETED none
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeeChange(long sequence, EmployeeChangedEvent.ChangeType type, long id, String firstName,
+                             String lastName, String email) {
+
+    public static EmployeeChange from(long sequence, EmployeeChangedEvent event) {
+        Employee employee = event.employee();
+        if (employee == null) {
+            return new EmployeeChange(sequence, event.type(), event.id(), null, null, null);
+        }
+        return new EmployeeChange(sequence, event.type(), event.id(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail());
+    }
+}
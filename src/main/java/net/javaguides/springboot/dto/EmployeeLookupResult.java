@@ -0,0 +1,7 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+
+// every employee with the requested name, empty when there is none
+public record EmployeeLookupResult(String firstName, String lastName, List<EmployeeView> employees) {
+}
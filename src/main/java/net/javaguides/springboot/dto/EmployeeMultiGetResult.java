@@ -0,0 +1,7 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+
+// employees of a multi-get in request order, missing holds the requested ids no employee has
+public record EmployeeMultiGetResult(List<EmployeeView> employees, List<Long> missing) {
+}
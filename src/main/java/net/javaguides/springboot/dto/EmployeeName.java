@@ -0,0 +1,5 @@
+package net.javaguides.springboot.dto;
+
+// first and last name of an employee to look up, several employees can share one
+public record EmployeeName(String firstName, String lastName) {
+}
@@ -0,0 +1,7 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+
+// one page of ranked search results, total is the number of matches over all pages
+public record EmployeeSearchResult(List<EmployeeView> employees, int total) {
+}
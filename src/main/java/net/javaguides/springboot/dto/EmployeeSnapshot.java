@@ -0,0 +1,6 @@
+package net.javaguides.springboot.dto;
+
+// immutable gzip compressed JSON array of all employees, eTag changes with the uncompressed content;
+// the array is shared, callers must not modify it
+public record EmployeeSnapshot(long version, int size, String eTag, byte[] gzippedJson) {
+}
@@ -0,0 +1,13 @@
+package net.javaguides.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import net.javaguides.springboot.model.Employee;
+
+// read-only projection of an employee, selected straight into this record without a managed entity
+public record EmployeeView(long id, String firstName, String lastName, String email, @JsonIgnore long version) {
+
+    public static EmployeeView from(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getVersion());
+    }
+}
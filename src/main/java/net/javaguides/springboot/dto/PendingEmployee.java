@@ -0,0 +1,26 @@
+package net.javaguides.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+// status of a create accepted by the write-behind queue, employeeId is set once it is CREATED, error once it FAILED
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PendingEmployee(UUID ticket, Status status, Long employeeId, String error) {
+
+    public enum Status {
+        QUEUED, CREATED, FAILED
+    }
+
+    public static PendingEmployee queued(UUID ticket) {
+        return new PendingEmployee(ticket, Status.QUEUED, null, null);
+    }
+
+    public static PendingEmployee created(UUID ticket, long employeeId) {
+        return new PendingEmployee(ticket, Status.CREATED, employeeId, null);
+    }
+
+    public static PendingEmployee failed(UUID ticket, String error) {
+        return new PendingEmployee(ticket, Status.FAILED, null, error);
+    }
+}
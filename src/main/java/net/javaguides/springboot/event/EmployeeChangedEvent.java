@@ -0,0 +1,38 @@
+package net.javaguides.springboot.event;
+
+import net.javaguides.springboot.model.Employee;
+
+// published by EmployeeServiceImpl after every write, listeners keep in-memory views of the table up to date
+public record EmployeeChangedEvent(ChangeType type, long id, Employee employee) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        // employee only holds the id, the changed fields and the version the patch wrote, the others are null
+        PATCHED,
+        // employee is null
+        DELETED
+    }
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return new EmployeeChangedEvent(ChangeType.CREATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(ChangeType.UPDATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent patched(long id, Employee changes, long version) {
+        return new EmployeeChangedEvent(ChangeType.PATCHED, id, Employee.builder()
+                .id(id)
+                .firstName(changes.getFirstName())
+                .lastName(changes.getLastName())
+                .email(changes.getEmail())
+                .version(version)
+                .build());
+    }
+
+    public static EmployeeChangedEvent deleted(long id) {
+        return new EmployeeChangedEvent(ChangeType.DELETED, id, null);
+    }
+}
@@ -1,7 +1,10 @@
 package net.javaguides.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Setter
 @Getter
@@ -10,11 +13,29 @@ import lombok.*;
 @Builder
 
 @Entity
-@Table(name = "employees")
+// second-level cache region, sized in hibernate-cache.conf; updates and deletes through Hibernate keep it current
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@Table(name = "employees", uniqueConstraints = {
+        @UniqueConstraint(name = Employee.UNIQUE_EMAIL_CONSTRAINT, columnNames = "email")
+}, indexes = {
+        // name lookups (findByJPQL and friends, findViewsByNameIn) seek on both columns
+        @Index(name = "idx_employees_first_last_name", columnList = "first_name, last_name")
+})
 public class Employee {
 
+    public static final String UNIQUE_EMAIL_CONSTRAINT = "uk_employees_email";
+
+    public static final String CACHE_REGION = "employee-entity";
+
+    public static final String ID_SEQUENCE = "employees_seq";
+
+    // ids Hibernate takes from ID_SEQUENCE per round trip
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // pooled sequence (a table on MySQL) instead of IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private long id;
 
     @Column(name = "first_name", nullable = false)
@@ -25,4 +46,9 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // bumped on every update, exposed to clients as the ETag instead of in the body
+    @Version
+    @JsonIgnore
+    private long version;
 }
@@ -0,0 +1,51 @@
+package net.javaguides.springboot.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.model.Employee;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// ddl-auto creates employees_seq starting at 1 on a database whose employees already have ids, and the first
+// blocks handed out would collide with them. Before the web server takes requests the sequence is raised to
+// at least max(id) + ID_ALLOCATION_SIZE: Hibernate's pooled optimizer, and ReactiveEmployeeRepository after it,
+// hand out the ID_ALLOCATION_SIZE ids up to the value they read. A sequence already past that is left alone.
+@Component
+@Profile("!reactive")
+public class EmployeeIdSequenceInitializer implements InitializingBean {
+
+    private final SequenceSupport sequenceSupport;
+
+    // no transaction, so the statements run on the primary
+    private final JdbcTemplate jdbcTemplate;
+
+    // taking the EntityManagerFactory makes this run after the schema update
+    public EmployeeIdSequenceInitializer(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long floor = jdbcTemplate.queryForObject("Select coalesce(max(id), 0) from employees", Long.class)
+                + Employee.ID_ALLOCATION_SIZE;
+        if (sequenceSupport.supportsSequences()) {
+            // reading the next value uses up one block, which is cheaper than a dialect specific way of peeking
+            Long next = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString(Employee.ID_SEQUENCE), Long.class);
+            if (next < floor) {
+                jdbcTemplate.execute("alter sequence " + Employee.ID_SEQUENCE + " restart with " + floor);
+            }
+        } else {
+            // MySQL, where Hibernate keeps the sequence in a single-row table; atomic when instances start together
+            jdbcTemplate.update("Update " + Employee.ID_SEQUENCE + " set next_val = ? where next_val < ?", floor, floor);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeView;
+
+import java.util.Collection;
+import java.util.List;
+
+// batch lookups built at runtime, implemented by EmployeeLookupRepositoryImpl and mixed into EmployeeRepository
+public interface EmployeeLookupRepository {
+
+    // every employee whose first and last name match one of the given pairs, in no particular order
+    List<EmployeeView> findViewsByNameIn(Collection<EmployeeName> names);
+}
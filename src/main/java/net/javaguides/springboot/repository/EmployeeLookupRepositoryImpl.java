@@ -0,0 +1,54 @@
+package net.javaguides.springboot.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+public class EmployeeLookupRepositoryImpl implements EmployeeLookupRepository {
+
+    // name pairs per statement, two bind parameters each
+    static final int LOOKUP_CHUNK_SIZE = 512;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // one (first_name, last_name) IN ((?, ?), ...) statement per chunk, each an index range scan on
+    // idx_employees_first_last_name instead of one query per pair
+    @Override
+    public List<EmployeeView> findViewsByNameIn(Collection<EmployeeName> names) {
+        List<EmployeeName> distinctNames = List.copyOf(new LinkedHashSet<>(names));
+        List<EmployeeView> employees = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += LOOKUP_CHUNK_SIZE) {
+            employees.addAll(findChunk(distinctNames.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctNames.size()))));
+        }
+        return employees;
+    }
+
+    // the pairs are padded to a power of two by repeating the last one, so at most a handful of
+    // statement shapes end up in Hibernate's query plan cache and the database's statement cache
+    private List<EmployeeView> findChunk(List<EmployeeName> names) {
+        int pairs = names.size() == 1 ? 1 : Integer.highestOneBit(names.size() - 1) << 1;
+        StringBuilder jpql = new StringBuilder("Select new net.javaguides.springboot.dto.EmployeeView(")
+                .append("e.id, e.firstName, e.lastName, e.email, e.version) ")
+                .append("from Employee e where (e.firstName, e.lastName) in (");
+        for (int i = 0; i < pairs; i++) {
+            jpql.append(i == 0 ? "" : ", ").append("(?").append(2 * i + 1).append(", ?").append(2 * i + 2).append(')');
+        }
+        jpql.append(')');
+
+        TypedQuery<EmployeeView> query = entityManager.createQuery(jpql.toString(), EmployeeView.class);
+        for (int i = 0; i < pairs; i++) {
+            EmployeeName name = names.get(Math.min(i, names.size() - 1));
+            query.setParameter(2 * i + 1, name.firstName());
+            query.setParameter(2 * i + 2, name.lastName());
+        }
+        return query.getResultList();
+    }
+}
@@ -1,21 +1,92 @@
 package net.javaguides.springboot.repository;
 
+import jakarta.persistence.QueryHint;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.model.Employee;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeLookupRepository,
+        EmployeeWriteRepository {
+
+    // query cache region of the name lookups, sized in hibernate-cache.conf
+    String LOOKUP_QUERY_REGION = "employee-lookups";
 
     Optional<Employee> findByEmail(String email);
 
+    List<Employee> findByEmailIn(Collection<String> emails);
+
+    // keyset pagination on the primary key, Slice avoids the extra count query; selected into the
+    // read-only EmployeeView record instead of managed entities
+    Slice<EmployeeView> findViewsByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    // cached by EmployeeServiceImpl, so not read-only and always read from the primary
+    @Transactional
+    Optional<EmployeeView> findViewById(long id);
+
+    // views of all given ids that exist, in no particular order; they go into the employees cache of
+    // EmployeeServiceImpl, so not read-only and always read from the primary
+    @Transactional
+    List<EmployeeView> findViewsByIdIn(Collection<Long> ids);
+
+    // only the version column, enough to answer a conditional GET; compared with the cached views of
+    // EmployeeServiceImpl, so not read-only and always read from the primary
+    @Transactional
+    @Query("Select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    // stream every employee, a fetch size of Integer.MIN_VALUE makes MySQL stream the rows one by one
+    // instead of buffering the whole result set, must be consumed inside a transaction and closed.
+    // The rows are not put into the second-level cache: the export reads from a replica when there is one,
+    // and a full scan would only push the hot entries out.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("Select e from Employee e")
+    Stream<Employee> streamAll();
+
+    // stream only the email column, used to build the in-memory email filter at startup
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("Select e.email from Employee e")
+    Stream<String> streamAllEmails();
+
+    // stream every employee as a view, nothing is added to the persistence context, used to build the search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("Select new net.javaguides.springboot.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "from Employee e")
+    Stream<EmployeeView> streamAllViews();
+
     // define custom query using JPQL with index params
+    // a single result, fails when two employees share the name, see findViewsByNameIn for batches
+    // the matching ids are kept in the query cache, the employees themselves come from the entity region;
+    // not read-only so both are filled from the primary, never from a replica that is behind
+    @Transactional
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LOOKUP_QUERY_REGION)
+    })
     @Query("Select e from Employee e where e.firstName =?1 and e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
 
     // define custom query using JPQL with named params
+    @Transactional
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LOOKUP_QUERY_REGION)
+    })
     @Query("Select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
     Employee findByJPQLNamedParam(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
@@ -0,0 +1,22 @@
+package net.javaguides.springboot.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// writes implemented by EmployeeWriteRepositoryImpl and mixed into EmployeeRepository. The single-row writes are
+// one statement each and, unlike a bulk JPQL statement, which makes Hibernate drop the whole Employee region of the
+// second-level cache, only evict the entry of the written employee.
+public interface EmployeeWriteRepository {
+
+    // single UPDATE of the given columns, null arguments keep the stored value; with an expected version only
+    // that version is updated. Returns the new version, empty when no employee has the id, and throws
+    // ObjectOptimisticLockingFailureException when the employee exists at another version.
+    Optional<Long> updatePartially(long id, Long expectedVersion, String firstName, String lastName, String email);
+
+    // single DELETE without loading the employee first, returns the number of deleted employees, 0 or 1
+    int deleteEmployeeById(long id);
+
+    // set based DELETE of all given ids that exist, returns the ids it deleted
+    List<Long> deleteEmployeesByIdIn(Collection<Long> ids);
+}
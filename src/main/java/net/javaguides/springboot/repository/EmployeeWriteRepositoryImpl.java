@@ -0,0 +1,153 @@
+package net.javaguides.springboot.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import net.javaguides.springboot.model.Employee;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class EmployeeWriteRepositoryImpl implements EmployeeWriteRepository {
+
+    // query space of the single-row statements. Hibernate drops every cached entity of the tables a native
+    // statement is synchronized on, and of all tables when it names none, so they name a space no entity
+    // maps to and evict the written employee themselves once the transaction has committed.
+    static final String SINGLE_ROW_QUERY_SPACE = "employees_single_row";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // one UPDATE of only the given columns, where id = ? [and version = ?]. The new version is also written to
+    // LAST_INSERT_ID(), which MySQL sends back in the OK packet of the UPDATE and the driver hands out as the
+    // generated key, so the version this update wrote is known without a second statement. Only a failed
+    // conditional update reads the version, to tell a stale version from a missing employee.
+    @Override
+    @Transactional
+    public Optional<Long> updatePartially(long id, Long expectedVersion, String firstName, String lastName, String email) {
+        StringBuilder sql = new StringBuilder("Update employees set ");
+        List<Object> parameters = new ArrayList<>();
+        if (firstName != null) {
+            sql.append("first_name = ?, ");
+            parameters.add(firstName);
+        }
+        if (lastName != null) {
+            sql.append("last_name = ?, ");
+            parameters.add(lastName);
+        }
+        if (email != null) {
+            sql.append("email = ?, ");
+            parameters.add(email);
+        }
+        sql.append("version = last_insert_id(version + 1) where id = ?");
+        parameters.add(id);
+        if (expectedVersion != null) {
+            sql.append(" and version = ?");
+            parameters.add(expectedVersion);
+        }
+
+        // pending changes must reach the row before the statement, Hibernate does not know which tables it touches
+        entityManager.flush();
+        Optional<Long> version = executeReturningKey(sql.toString(), parameters);
+        evictAfterCommit(id);
+
+        if (version.isEmpty() && expectedVersion != null && !entityManager
+                .createQuery("Select e.version from Employee e where e.id = :id", Long.class)
+                .setParameter("id", id)
+                .getResultList()
+                .isEmpty()) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        return version;
+    }
+
+    // one DELETE, the employee is not loaded first
+    @Override
+    @Transactional
+    public int deleteEmployeeById(long id) {
+        int deleted = singleRowStatement("Delete from employees where id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        evictAfterCommit(id);
+        return deleted;
+    }
+
+    // the existing ids are locked while they are selected, so a concurrent delete can not take one of them
+    // between the SELECT and the DELETE and the returned ids are exactly the deleted rows
+    @Override
+    @Transactional
+    public List<Long> deleteEmployeesByIdIn(Collection<Long> ids) {
+        List<Long> existing = entityManager.createQuery("Select e.id from Employee e where e.id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (!existing.isEmpty()) {
+            entityManager.createQuery("delete from Employee e where e.id in :ids")
+                    .setParameter("ids", existing)
+                    .executeUpdate();
+            // entities loaded before the statement would still look alive
+            entityManager.clear();
+        }
+        return existing;
+    }
+
+    // runs the statement through the session's JDBC coordinator, so it is logged and counted like Hibernate's own
+    // statements; the generated key of an updated row, empty when no row was updated
+    private Optional<Long> executeReturningKey(String sql, List<Object> parameters) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(sql, true);
+        try {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            if (jdbcCoordinator.getResultSetReturn().executeUpdate(statement, sql) == 0) {
+                return Optional.empty();
+            }
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                return keys.next() ? Optional.of(keys.getLong(1)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not update employee", sql);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
+
+    private Query singleRowStatement(String sql) {
+        // the space keeps Hibernate from flushing on its own, pending changes must reach the row before the statement
+        entityManager.flush();
+        Query statement = entityManager.createNativeQuery(sql);
+        statement.unwrap(NativeQuery.class).addSynchronizedQuerySpace(SINGLE_ROW_QUERY_SPACE);
+        return statement;
+    }
+
+    // Entities loaded before the statement still hold the old row and are detached right away. The second-level
+    // cache entry and the cached name lookups, which may list the employee under its old name, go after commit:
+    // evicted any earlier, a concurrent reader could put the old row back before the new one is visible.
+    private void evictAfterCommit(long id) {
+        entityManager.clear();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                org.hibernate.Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(org.hibernate.Cache.class);
+                cache.evict(Employee.class, id);
+                cache.evictQueryRegion(EmployeeRepository.LOOKUP_QUERY_REGION);
+            }
+        });
+    }
+}
@@ -0,0 +1,211 @@
+package net.javaguides.springboot.repository;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import net.javaguides.springboot.model.Employee;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// R2DBC counterpart of EmployeeRepository on the same employees table, used by the reactive profile only
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private static final int ID_BLOCK_SIZE = Employee.ID_ALLOCATION_SIZE;
+
+    private static final String SELECT_EMPLOYEE = "Select id, first_name, last_name, email, version from employees ";
+
+    private DatabaseClient databaseClient;
+
+    private TransactionalOperator transactionalOperator;
+
+    private AtomicReference<IdBlock> idBlock = new AtomicReference<>(new IdBlock(1, 0));
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    public Mono<Employee> findById(long id) {
+        return databaseClient.sql(SELECT_EMPLOYEE + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Mono<Employee> findByEmail(String email) {
+        return databaseClient.sql(SELECT_EMPLOYEE + "where email = :email")
+                .bind("email", email)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Flux<Employee> findByEmailIn(Collection<String> emails) {
+        return databaseClient.sql(SELECT_EMPLOYEE + "where email in (:emails)")
+                .bind("emails", emails)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    // keyset page, same query as EmployeeRepository.findViewsByIdGreaterThanOrderByIdAsc
+    public Flux<Employee> findByIdGreaterThan(long after, int limit) {
+        return databaseClient.sql(SELECT_EMPLOYEE + "where id > :after order by id limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    // rows are read from the connection only as fast as the subscriber requests them
+    public Flux<Employee> findAll() {
+        return databaseClient.sql(SELECT_EMPLOYEE + "order by id")
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Mono<Employee> insert(Employee employee) {
+        return nextId().flatMap(id -> insert(employee, id));
+    }
+
+    // all rows in one transaction, a failed insert rolls back the ones before it. The ids are taken before the
+    // transaction opens: a block allocated inside it would need a second connection while the first is held,
+    // and bulk inserts waiting for one could take the whole pool.
+    public Flux<Employee> insertAll(List<Employee> employees) {
+        return Flux.fromIterable(employees)
+                .concatMap(employee -> nextId())
+                .collectList()
+                .flatMapMany(ids -> Flux.range(0, employees.size())
+                        .concatMap(i -> insert(employees.get(i), ids.get(i)))
+                        .as(transactionalOperator::transactional));
+    }
+
+    private Mono<Employee> insert(Employee employee, long id) {
+        return databaseClient.sql(
+                        "Insert into employees (id, first_name, last_name, email, version) values (:id, :firstName, :lastName, :email, 0)")
+                .bind("id", id)
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .fetch()
+                .rowsUpdated()
+                .then(Mono.fromSupplier(() -> {
+                    employee.setId(id);
+                    employee.setVersion(0);
+                    return employee;
+                }));
+    }
+
+    // replaces all fields, returns the number of updated rows
+    public Mono<Long> update(long id, String firstName, String lastName, String email) {
+        return databaseClient.sql("Update employees set first_name = :firstName, last_name = :lastName, email = :email, "
+                        + "version = version + 1 where id = :id")
+                .bind("id", id)
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .bind("email", email)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // EmployeeWriteRepository.updatePartially as one statement without the version check, null arguments keep the stored value
+    public Mono<Long> updatePartially(long id, String firstName, String lastName, String email) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("Update employees set "
+                        + "first_name = coalesce(:firstName, first_name), "
+                        + "last_name = coalesce(:lastName, last_name), "
+                        + "email = coalesce(:email, email), "
+                        + "version = version + 1 where id = :id")
+                .bind("id", id);
+        spec = bindNullable(spec, "firstName", firstName);
+        spec = bindNullable(spec, "lastName", lastName);
+        spec = bindNullable(spec, "email", email);
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("Delete from employees where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("Delete from employees where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = idBlock.get().next();
+            if (id > 0) {
+                return Mono.just(id);
+            }
+            return allocateIdBlock().flatMap(block -> {
+                idBlock.set(block);
+                return nextId();
+            });
+        });
+    }
+
+    // Follows Hibernate's pooled optimizer on the employees_seq table, so ids never collide with the JPA side:
+    // moving next_val from hi to hi + 50 hands out ids hi - 49 .. hi. Only called outside the insert
+    // transactions, so it commits on its own and a rolled back insert never gives the block back to the table;
+    // the transaction keeps both statements on one connection for last_insert_id().
+    private Mono<IdBlock> allocateIdBlock() {
+        return databaseClient.sql("Update employees_seq set next_val = last_insert_id(next_val + " + ID_BLOCK_SIZE + ")")
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("Select last_insert_id()")
+                        .map(row -> row.get(0, Long.class))
+                        .one())
+                .as(transactionalOperator::transactional)
+                .map(nextValue -> {
+                    long hi = nextValue - ID_BLOCK_SIZE;
+                    return new IdBlock(Math.max(1, hi - ID_BLOCK_SIZE + 1), hi);
+                });
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    private static Employee toEmployee(Row row, RowMetadata metadata) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    // range of ids owned by this instance, handed out without touching the database
+    private static final class IdBlock {
+
+        private final AtomicLong next;
+
+        private final long hi;
+
+        IdBlock(long first, long hi) {
+            this.next = new AtomicLong(first);
+            this.hi = hi;
+        }
+
+        // next free id, or -1 once the block is used up
+        long next() {
+            long id = next.getAndIncrement();
+            return id <= hi ? id : -1;
+        }
+    }
+}
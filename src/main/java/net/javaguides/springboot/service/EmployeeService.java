@@ -1,18 +1,79 @@
 package net.javaguides.springboot.service;
 
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.dto.EmployeeMultiGetResult;
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeSearchResult;
+import net.javaguides.springboot.dto.EmployeeSnapshot;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.model.Employee;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
+
+    int DEFAULT_PAGE_SIZE = 20;
+
+    int MAX_PAGE_SIZE = 100;
+
+    int MAX_BULK_DELETE_SIZE = 1000;
+
+    int MAX_LOOKUP_SIZE = 1000;
+
+    int MAX_MULTI_GET_SIZE = 1000;
+
+    // ranked results are paged by offset, deep pages would have to rank everything before them
+    int MAX_SEARCH_OFFSET = 1000;
+
     Employee saveEmployee(Employee employee);
 
+    // saves all employees in one transaction using JDBC batch inserts
+    List<Employee> saveEmployees(List<Employee> employees);
+
     List<Employee> getAllEmployees();
 
+    // keyset page of employees with id greater than the given cursor, limit is capped at MAX_PAGE_SIZE
+    Slice<EmployeeView> getEmployees(long after, int limit);
+
+    // gzip compressed JSON of all employees, rebuilt shortly after writes, empty until the first build has finished
+    Optional<EmployeeSnapshot> getEmployeeSnapshot();
+
+    // passes every employee to the consumer one at a time, without holding the whole table in memory
+    void exportEmployees(Consumer<Employee> consumer);
+
+    // managed entity, for callers that go on to change it
     Optional<Employee> getEmployeeById(long id);
 
+    // read-only view, for callers that only return it
+    Optional<EmployeeView> getEmployeeViewById(long id);
+
+    // read-only views of the given ids in request order, cached views first and one query per chunk of misses
+    EmployeeMultiGetResult getEmployeeViewsByIds(Collection<Long> ids);
+
+    // ranked search over first name, last name and email, empty while the search index is still loading
+    Optional<EmployeeSearchResult> searchEmployees(String query, int offset, int limit);
+
+    // every employee with each of the given names, one result per distinct name in request order
+    List<EmployeeLookupResult> lookupEmployees(List<EmployeeName> names);
+
+    // current version of the employee, without loading the rest of the row
+    Optional<Long> getEmployeeVersion(long id);
+
     Employee updateEmployee(Employee updatedEmployee);
-    
-    void deleteEmployee(long id);
+
+    // updates only the non null fields of changes in one statement, only at expectedVersion unless it is null;
+    // returns the new version, empty when no employee has the id, and throws ObjectOptimisticLockingFailureException
+    // when the employee is at another version
+    Optional<Long> patchEmployee(long id, Employee changes, Long expectedVersion);
+
+    // returns false when no employee has the id
+    boolean deleteEmployee(long id);
+
+    // locks the given ids that exist with one SELECT ... FOR UPDATE, then deletes them with one DELETE;
+    // returns the number of deleted employees
+    int deleteEmployees(Collection<Long> ids);
 }
@@ -0,0 +1,37 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+// non-blocking counterpart of EmployeeService, only present in the reactive profile
+public interface ReactiveEmployeeService {
+
+    Mono<Employee> saveEmployee(Employee employee);
+
+    // saves all employees in one transaction
+    Flux<Employee> saveEmployees(List<Employee> employees);
+
+    // keyset page of employees with id greater than the given cursor, limit is capped at EmployeeService.MAX_PAGE_SIZE
+    Flux<Employee> getEmployees(long after, int limit);
+
+    // every employee, read from the database as the subscriber requests them
+    Flux<Employee> exportEmployees();
+
+    Mono<Employee> getEmployeeById(long id);
+
+    // replaces the fields of the employee, empty when no employee has the id
+    Mono<Employee> updateEmployee(long id, Employee employee);
+
+    // updates only the non null fields of changes in one statement, false when no employee has the id
+    Mono<Boolean> patchEmployee(long id, Employee changes);
+
+    // false when no employee has the id
+    Mono<Boolean> deleteEmployee(long id);
+
+    // deletes all given ids in one statement, emits the number of deleted employees
+    Mono<Long> deleteEmployees(Collection<Long> ids);
+}
@@ -1,49 +1,425 @@
 package net.javaguides.springboot.service.impl;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.dto.EmployeeMultiGetResult;
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeSearchResult;
+import net.javaguides.springboot.dto.EmployeeSnapshot;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
 import net.javaguides.springboot.exception.ResourceNotException;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.support.EmailBloomFilter;
+import net.javaguides.springboot.service.support.EmployeeListSnapshot;
+import net.javaguides.springboot.service.support.EmployeeSearchIndex;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+// JPA backed, the reactive profile has no DataSource and uses ReactiveEmployeeServiceImpl instead
 @Service
+@Profile("!reactive")
+// one employees.service timer per method, tagged with class and method
+@Timed(EmployeeServiceImpl.SERVICE_TIMER)
 public class EmployeeServiceImpl implements EmployeeService {
 
+    // same as spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int BATCH_SIZE = 50;
+
+    // bound on the number of emails sent in one IN (...) query
+    private static final int EMAIL_LOOKUP_CHUNK_SIZE = 1000;
+
+    // bound on the number of ids sent in one IN (...) query
+    private static final int ID_LOOKUP_CHUNK_SIZE = 1000;
+
+    // configured through spring.cache.* in application.properties
+    public static final String EMPLOYEE_CACHE = "employees";
+
+    // percentiles configured through management.metrics.distribution.* in application.properties
+    public static final String SERVICE_TIMER = "employees.service";
+
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private EntityManager entityManager;
+
+    private EmailBloomFilter emailFilter;
+
+    private EmployeeSearchIndex searchIndex;
+
+    private EmployeeListSnapshot listSnapshot;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private CacheManager cacheManager;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EntityManager entityManager,
+                               EmailBloomFilter emailFilter, EmployeeSearchIndex searchIndex,
+                               EmployeeListSnapshot listSnapshot, ApplicationEventPublisher eventPublisher,
+                               CacheManager cacheManager) {
         this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.emailFilter = emailFilter;
+        this.searchIndex = searchIndex;
+        this.listSnapshot = listSnapshot;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if (savedEmployee.isPresent()) {
+        // emails the filter has never seen skip the lookup, only possible duplicates are checked before inserting
+        if (emailFilter.mightContain(employee.getEmail()) && employeeRepository.findByEmail(employee.getEmail()).isPresent()) {
             throw new ResourceNotException("Employee already exist with given email: " + employee.getEmail());
         }
-        return employeeRepository.save(employee);
+        // single INSERT, the unique index on email rejects duplicates even for concurrent creates
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, "Employee already exist with given email: " + employee.getEmail());
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployee));
+        return savedEmployee;
     }
 
     @Override
+    @Transactional
+    public List<Employee> saveEmployees(List<Employee> employees) {
+        checkEmailsAreNotRepeated(employees);
+        checkPossibleDuplicateEmails(employees);
+        try {
+            for (int i = 0; i < employees.size(); i++) {
+                employeeRepository.save(employees.get(i));
+                // flush each full batch and clear it so the persistence context does not grow with the input
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    employeeRepository.flush();
+                    entityManager.clear();
+                }
+            }
+            employeeRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, "Employee already exist with one of the given emails");
+        }
+        employees.forEach(employee -> eventPublisher.publishEvent(EmployeeChangedEvent.created(employee)));
+        return employees;
+    }
+
+    // rejects the whole request before inserting anything, but only queries the emails the filter cannot rule out
+    private void checkPossibleDuplicateEmails(List<Employee> employees) {
+        List<String> candidates = employees.stream()
+                .map(Employee::getEmail)
+                .filter(emailFilter::mightContain)
+                .toList();
+        for (int from = 0; from < candidates.size(); from += EMAIL_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from, Math.min(from + EMAIL_LOOKUP_CHUNK_SIZE, candidates.size()));
+            List<Employee> savedEmployees = employeeRepository.findByEmailIn(chunk);
+            if (!savedEmployees.isEmpty()) {
+                throw new ResourceNotException("Employee already exist with given email: " + savedEmployees.get(0).getEmail());
+            }
+        }
+    }
+
+    private void checkEmailsAreNotRepeated(List<Employee> employees) {
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (!emails.add(employee.getEmail())) {
+                throw new ResourceNotException("Employee email is repeated in the request: " + employee.getEmail());
+            }
+        }
+    }
+
+    // maps a violation of the unique email index to the duplicate error, anything else is rethrown
+    private RuntimeException duplicateEmail(DataIntegrityViolationException e, String message) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Employee.UNIQUE_EMAIL_CONSTRAINT)) {
+            return new ResourceNotException(message, e);
+        }
+        return e;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<EmployeeView> getEmployees(long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(after, PageRequest.ofSize(pageSize));
+    }
+
+    @Override
+    public Optional<EmployeeSnapshot> getEmployeeSnapshot() {
+        return listSnapshot.get();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<Employee> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                consumer.accept(employee);
+                // detach right away so the persistence context does not grow with the result set
+                entityManager.detach(employee);
+            });
+        }
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(long id) {
         return employeeRepository.findById(id);
     }
 
+    // Reads whose results end up in the employees cache, or are compared with what is in it, run on the primary
+    // (findViewById, findViewsByIdIn and findVersionById are not read-only, see ReadReplicaConfig): a row read from
+    // a lagging replica right after a write would be cached until it expires, and served even to the writer
+    // inside its read-your-writes window.
+    @Override
+    public Optional<EmployeeView> getEmployeeViewById(long id) {
+        Cache employeeCache = cacheManager.getCache(EMPLOYEE_CACHE);
+        EmployeeView cachedView = cachedView(employeeCache, id);
+        if (cachedView != null) {
+            return Optional.of(cachedView);
+        }
+        Optional<EmployeeView> employee = employeeRepository.findViewById(id);
+        employee.ifPresent(view -> cache(employeeCache, id, view));
+        return employee;
+    }
+
+    // no transaction of its own: when every id is cached no connection is taken, only the queries for the
+    // misses run, each in the transaction findViewsByIdIn opens on the primary
+    @Override
+    public EmployeeMultiGetResult getEmployeeViewsByIds(Collection<Long> ids) {
+        // the same cache getEmployeeViewById fills, only the misses are queried and then cached
+        Cache employeeCache = cacheManager.getCache(EMPLOYEE_CACHE);
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, EmployeeView> employeesById = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : distinctIds) {
+            EmployeeView cachedView = cachedView(employeeCache, id);
+            if (cachedView != null) {
+                employeesById.put(id, cachedView);
+            } else {
+                misses.add(id);
+            }
+        }
+        for (int from = 0; from < misses.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = misses.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, misses.size()));
+            for (EmployeeView employee : employeeRepository.findViewsByIdIn(chunk)) {
+                employeesById.put(employee.id(), employee);
+                cache(employeeCache, employee.id(), employee);
+            }
+        }
+
+        List<EmployeeView> employees = new ArrayList<>(employeesById.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            EmployeeView employee = employeesById.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new EmployeeMultiGetResult(employees, missing);
+    }
+
+    @Override
+    public Optional<EmployeeSearchResult> searchEmployees(String query, int offset, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return searchIndex.search(query, Math.max(0, Math.min(offset, MAX_SEARCH_OFFSET)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeLookupResult> lookupEmployees(List<EmployeeName> names) {
+        // the database compares names under its collation (case and accent insensitive by default on MySQL),
+        // so the rows are matched back to the requested names the same way rather than with equals
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        Map<List<Object>, List<EmployeeView>> employeesByName = new HashMap<>();
+        for (EmployeeView employee : employeeRepository.findViewsByNameIn(names)) {
+            employeesByName.computeIfAbsent(nameKey(collator, employee.firstName(), employee.lastName()),
+                    key -> new ArrayList<>()).add(employee);
+        }
+
+        List<EmployeeLookupResult> results = new ArrayList<>();
+        for (EmployeeName name : new LinkedHashSet<>(names)) {
+            List<EmployeeView> employees = new ArrayList<>(employeesByName.getOrDefault(
+                    nameKey(collator, name.firstName(), name.lastName()), List.of()));
+            employees.sort(Comparator.comparingLong(EmployeeView::id));
+            results.add(new EmployeeLookupResult(name.firstName(), name.lastName(), employees));
+        }
+        return results;
+    }
+
+    private static List<Object> nameKey(Collator collator, String firstName, String lastName) {
+        return List.of(collator.getCollationKey(firstName), collator.getCollationKey(lastName));
+    }
+
+    // no transaction of its own: a cache hit answers the conditional GET without a connection,
+    // only a miss runs the repository query, in the transaction findVersionById opens on the primary
+    @Override
+    public Optional<Long> getEmployeeVersion(long id) {
+        // a cached view already knows its version, otherwise only the version column is read
+        EmployeeView cachedView = cachedView(cacheManager.getCache(EMPLOYEE_CACHE), id);
+        if (cachedView != null) {
+            return Optional.of(cachedView.version());
+        }
+        return employeeRepository.findVersionById(id);
+    }
+
+    // the writes below leave their new version in the employees cache once it is committed, see cache(...)
     @Override
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(updatedEmployee);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, "Employee already exist with given email: " + updatedEmployee.getEmail());
+        }
+        cache(cacheManager.getCache(EMPLOYEE_CACHE), savedEmployee.getId(), EmployeeView.from(savedEmployee));
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(savedEmployee));
+        return savedEmployee;
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    public Optional<Long> patchEmployee(long id, Employee changes, Long expectedVersion) {
+        Optional<Long> version;
+        try {
+            version = employeeRepository.updatePartially(id, expectedVersion,
+                    changes.getFirstName(), changes.getLastName(), changes.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, "Employee already exist with given email: " + changes.getEmail());
+        }
+        version.ifPresent(newVersion -> {
+            Cache employeeCache = cacheManager.getCache(EMPLOYEE_CACHE);
+            cache(employeeCache, id, patched(employeeCache, id, changes, newVersion));
+            eventPublisher.publishEvent(EmployeeChangedEvent.patched(id, changes, newVersion));
+        });
+        return version;
+    }
+
+    @Override
+    public boolean deleteEmployee(long id) {
+        if (employeeRepository.deleteEmployeeById(id) == 0) {
+            return false;
+        }
+        cache(cacheManager.getCache(EMPLOYEE_CACHE), id, WrittenVersion.DELETED);
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+        return true;
+    }
+
+    @Override
+    public int deleteEmployees(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> deleted = employeeRepository.deleteEmployeesByIdIn(ids);
+        Cache employeeCache = cacheManager.getCache(EMPLOYEE_CACHE);
+        deleted.forEach(id -> {
+            cache(employeeCache, id, WrittenVersion.DELETED);
+            eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+        });
+        return deleted.size();
+    }
+
+    // the view after a patch when the cache holds the one before it, otherwise only the version the patch wrote
+    private static Object patched(Cache employeeCache, long id, Employee changes, long newVersion) {
+        EmployeeView cachedView = cachedView(employeeCache, id);
+        if (cachedView == null || cachedView.version() != newVersion - 1) {
+            return new WrittenVersion(newVersion);
+        }
+        return new EmployeeView(id,
+                changes.getFirstName() != null ? changes.getFirstName() : cachedView.firstName(),
+                changes.getLastName() != null ? changes.getLastName() : cachedView.lastName(),
+                changes.getEmail() != null ? changes.getEmail() : cachedView.email(),
+                newVersion);
+    }
+
+    private static EmployeeView cachedView(Cache employeeCache, long id) {
+        Cache.ValueWrapper cached = employeeCache != null ? employeeCache.get(id) : null;
+        return cached != null && cached.get() instanceof EmployeeView view ? view : null;
+    }
+
+    // A read can load a row just before a write commits and reach the cache after the write is done with it,
+    // so the cache never takes a value older than the one it holds: views read from the database and values
+    // left by writes are merged by version, the higher one stays. A write that has no complete view to leave
+    // leaves a WrittenVersion, which is a miss for readers but keeps the older views out.
+    private static void cache(Cache employeeCache, long id, Object value) {
+        Object nativeCache = employeeCache != null ? employeeCache.getNativeCache() : null;
+        ConcurrentMap<Object, Object> entries;
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeineCache) {
+            entries = asObjectMap(caffeineCache.asMap());
+        } else if (nativeCache instanceof ConcurrentMap<?, ?> map) {
+            entries = asObjectMap(map);
+        } else {
+            // no way to compare and set, dropping the entry is always safe
+            if (employeeCache != null) {
+                employeeCache.evict(id);
+            }
+            return;
+        }
+        entries.merge(id, value, (cached, offered) -> supersedes(offered, cached) ? offered : cached);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Object, Object> asObjectMap(ConcurrentMap<?, ?> map) {
+        return (ConcurrentMap<Object, Object>) map;
+    }
+
+    // at the same version, a view replaces the bare version a write left
+    private static boolean supersedes(Object offered, Object cached) {
+        long offeredVersion = cachedVersion(offered);
+        long cachedVersion = cachedVersion(cached);
+        return offeredVersion > cachedVersion
+                || (offeredVersion == cachedVersion && cached instanceof WrittenVersion && offered instanceof EmployeeView);
+    }
+
+    private static long cachedVersion(Object cached) {
+        if (cached instanceof EmployeeView view) {
+            return view.version();
+        }
+        if (cached instanceof WrittenVersion written) {
+            return written.version();
+        }
+        return Long.MIN_VALUE;
+    }
+
+    // version a write committed, cached where the write left no view; ids are never reused, so a deleted
+    // employee's entry is above every version it had
+    private record WrittenVersion(long version) {
+
+        static final WrittenVersion DELETED = new WrittenVersion(Long.MAX_VALUE);
     }
 }
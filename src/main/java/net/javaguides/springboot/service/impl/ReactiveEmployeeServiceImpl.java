@@ -0,0 +1,116 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.exception.ResourceNotException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.ReactiveEmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    // bound on the number of emails sent in one IN (...) query
+    private static final int EMAIL_LOOKUP_CHUNK_SIZE = 1000;
+
+    private ReactiveEmployeeRepository employeeRepository;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        String message = "Employee already exist with given email: " + employee.getEmail();
+        return employeeRepository.findByEmail(employee.getEmail())
+                .flatMap(savedEmployee -> Mono.<Employee>error(new ResourceNotException(message)))
+                // the unique index on email still rejects concurrent creates of the same email
+                .switchIfEmpty(Mono.defer(() -> employeeRepository.insert(employee)))
+                .onErrorMap(DataIntegrityViolationException.class, e -> duplicateEmail(e, message));
+    }
+
+    @Override
+    public Flux<Employee> saveEmployees(List<Employee> employees) {
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (!emails.add(employee.getEmail())) {
+                return Flux.error(new ResourceNotException("Employee email is repeated in the request: " + employee.getEmail()));
+            }
+        }
+        return Flux.fromIterable(emails)
+                .buffer(EMAIL_LOOKUP_CHUNK_SIZE)
+                .concatMap(employeeRepository::findByEmailIn)
+                .next()
+                .flatMap(savedEmployee -> Mono.<Employee>error(
+                        new ResourceNotException("Employee already exist with given email: " + savedEmployee.getEmail())))
+                .thenMany(Flux.defer(() -> employeeRepository.insertAll(employees)))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> duplicateEmail(e, "Employee already exist with one of the given emails"));
+    }
+
+    // maps a violation of the unique email index to the duplicate error, anything else is rethrown
+    private static Throwable duplicateEmail(DataIntegrityViolationException e, String message) {
+        if (e.getMessage() != null
+                && e.getMessage().toLowerCase(Locale.ROOT).contains(Employee.UNIQUE_EMAIL_CONSTRAINT)) {
+            return new ResourceNotException(message, e);
+        }
+        return e;
+    }
+
+    @Override
+    public Flux<Employee> getEmployees(long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, EmployeeService.MAX_PAGE_SIZE));
+        return employeeRepository.findByIdGreaterThan(after, pageSize);
+    }
+
+    @Override
+    public Flux<Employee> exportEmployees() {
+        return employeeRepository.findAll();
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(long id, Employee employee) {
+        return employeeRepository.update(id, employee.getFirstName(), employee.getLastName(), employee.getEmail())
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> duplicateEmail(e, "Employee already exist with given email: " + employee.getEmail()))
+                .flatMap(updated -> updated == 0 ? Mono.empty() : employeeRepository.findById(id));
+    }
+
+    @Override
+    public Mono<Boolean> patchEmployee(long id, Employee changes) {
+        return employeeRepository.updatePartially(id, changes.getFirstName(), changes.getLastName(), changes.getEmail())
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> duplicateEmail(e, "Employee already exist with given email: " + changes.getEmail()))
+                .map(updated -> updated > 0);
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+        return employeeRepository.deleteById(id)
+                .map(deleted -> deleted > 0);
+    }
+
+    @Override
+    public Mono<Long> deleteEmployees(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return employeeRepository.deleteByIdIn(ids);
+    }
+}
@@ -0,0 +1,87 @@
+package net.javaguides.springboot.service.support;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Compact membership filter of the emails stored in the employees table.
+// mightContain == false means the email is definitely new, true means the database has to be asked.
+// Deleted or replaced emails are never removed, they only cost an extra lookup.
+@Component
+@Profile("!reactive")
+public class EmailBloomFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final BloomFilter<CharSequence> emails;
+
+    // until the startup load has finished every email has to be treated as possibly present
+    private volatile boolean loaded;
+
+    public EmailBloomFilter(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager,
+                            @Value("${employees.email-filter.expected-insertions:1000000}") int expectedInsertions,
+                            @Value("${employees.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.emails = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> storedEmails = employeeRepository.streamAllEmails()) {
+                    storedEmails.forEach(this::add);
+                }
+            });
+        } catch (RuntimeException e) {
+            // without the filter every create does the lookup, which is slower but still correct
+            LOGGER.warn("Email filter could not be loaded, duplicate checks will query the database", e);
+            return;
+        }
+        loaded = true;
+        LOGGER.info("Email filter loaded, approximate element count {}", emails.approximateElementCount());
+    }
+
+    public boolean mightContain(String email) {
+        return !loaded || email == null || emails.mightContain(normalize(email));
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            emails.put(normalize(email));
+        }
+    }
+
+    // added as soon as the write happened, a false positive is harmless while a false negative is not
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.employee() != null) {
+            add(event.employee().getEmail());
+        }
+    }
+
+    // MySQL compares emails case insensitively, so the filter has to as well
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,291 @@
+package net.javaguides.springboot.service.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.javaguides.springboot.dto.EmployeeChange;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Server-Sent Events feed of committed employee changes behind GET /api/employees/changes.
+// Every change gets the next sequence number and is kept in a ring of the last replay-capacity changes.
+// Event ids are "<instance>-<sequence>", so a client reconnecting with Last-Event-ID is sent the changes
+// it missed; when they are no longer in the ring, or the id is from another instance or an earlier run,
+// it gets a reset event instead and should reload the list before applying further changes.
+// The committing thread only appends to the ring and to each subscriber's bounded queue; the queues are
+// written to the connections on sender threads. A subscriber whose queue fills up is disconnected and
+// resumes from the ring when it reconnects, so a slow client costs at most queue-capacity entries.
+@Component
+@Profile("!reactive")
+public class EmployeeChangeFeed implements DisposableBean {
+
+    public static final String CHANGE_EVENT = "employee-changed";
+
+    public static final String RESET_EVENT = "reset";
+
+    private static final Change HEARTBEAT = new Change(null, null, null);
+
+    private final ObjectWriter changeWriter;
+
+    // distinguishes the ids of this run from those of earlier runs and of other instances
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Object lock = new Object();
+
+    // change with sequence s is at s % length, guarded by lock
+    private final Change[] replay;
+
+    private long lastSequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final int queueCapacity;
+
+    private final int maxSubscribers;
+
+    private final Duration timeout;
+
+    // at most one running drain per subscriber, a slow connection only ever blocks its own thread
+    private final ExecutorService senders;
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            daemonThreads("employee-changes-heartbeat"));
+
+    @Autowired
+    public EmployeeChangeFeed(ObjectMapper objectMapper,
+                              @Value("${employees.changes.replay-capacity:10000}") int replayCapacity,
+                              @Value("${employees.changes.queue-capacity:1000}") int queueCapacity,
+                              @Value("${employees.changes.max-subscribers:200}") int maxSubscribers,
+                              @Value("${employees.changes.heartbeat:15s}") Duration heartbeat,
+                              @Value("${employees.changes.timeout:30m}") Duration timeout) {
+        this(objectMapper, replayCapacity, queueCapacity, maxSubscribers, heartbeat, timeout,
+                Executors.newCachedThreadPool(daemonThreads("employee-changes-sender")));
+    }
+
+    EmployeeChangeFeed(ObjectMapper objectMapper, int replayCapacity, int queueCapacity, int maxSubscribers,
+                       Duration heartbeat, Duration timeout, ExecutorService senders) {
+        this.changeWriter = objectMapper.writerFor(EmployeeChange.class);
+        this.replay = new Change[replayCapacity];
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.senders = senders;
+        // also finds connections that went away without a change to send them
+        heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // empty when max-subscribers clients are already connected
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        SseEmitter emitter;
+        Subscriber subscriber;
+        // under the lock no change can be published between the backlog and the registration, and no other
+        // subscribe can register between the check of the limit and this one's registration
+        synchronized (lock) {
+            if (subscribers.size() >= maxSubscribers) {
+                return Optional.empty();
+            }
+            emitter = new SseEmitter(timeout.toMillis());
+            subscriber = new Subscriber(emitter, lastEventId == null ? List.of() : backlog(lastEventId));
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::closed);
+        emitter.onTimeout(subscriber::closed);
+        emitter.onError(error -> subscriber.closed());
+        subscriber.schedule();
+        return Optional.of(emitter);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // applied once the write is committed, a rolled back write is never announced
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        synchronized (lock) {
+            long sequence = ++lastSequence;
+            Change change = new Change(eventId(sequence), CHANGE_EVENT, toJson(EmployeeChange.from(sequence, event)));
+            replay[(int) (sequence % replay.length)] = change;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    // changes after lastEventId, or a reset when they cannot all be replayed
+    private List<Change> backlog(String lastEventId) {
+        long oldestSequence = Math.max(1, lastSequence - replay.length + 1);
+        long resumeAfter = parseSequence(lastEventId);
+        if (resumeAfter < oldestSequence - 1 || resumeAfter > lastSequence) {
+            return List.of(new Change(eventId(lastSequence), RESET_EVENT, "{}"));
+        }
+        List<Change> backlog = new ArrayList<>((int) (lastSequence - resumeAfter));
+        for (long sequence = resumeAfter + 1; sequence <= lastSequence; sequence++) {
+            backlog.add(replay[(int) (sequence % replay.length)]);
+        }
+        return backlog;
+    }
+
+    // -1 for ids that were not issued by this run
+    private long parseSequence(String eventId) {
+        String prefix = instance + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return instance + "-" + sequence;
+    }
+
+    private String toJson(EmployeeChange change) {
+        try {
+            return changeWriter.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.close(true));
+        senders.shutdown();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // name is null for a heartbeat comment
+    private record Change(String id, String name, String data) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // replayed before anything from the queue, only touched by the running drain
+        private List<Change> backlog;
+
+        private final BlockingQueue<Change> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, List<Change> backlog) {
+            this.emitter = emitter;
+            this.backlog = backlog;
+        }
+
+        // never blocks, a full queue disconnects the subscriber instead
+        void offer(Change change) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                close(true);
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                for (Change change : backlog) {
+                    if (closed) {
+                        return;
+                    }
+                    send(change);
+                }
+                backlog = List.of();
+                while (!closed) {
+                    Change change = queue.poll();
+                    if (change == null) {
+                        draining.set(false);
+                        // an offer between the poll and the reset found draining still set and did not schedule
+                        if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    send(change);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the emitter already completed, the container cleans up the request
+                close(false);
+            }
+        }
+
+        private void send(Change change) throws IOException {
+            emitter.send(change.toEvent());
+        }
+
+        // completing waits for a send in progress, so it is left to a sender thread
+        void close(boolean complete) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            if (complete) {
+                senders.execute(emitter::complete);
+            }
+        }
+
+        // callback of the emitter once the request is over
+        void closed() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package net.javaguides.springboot.service.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import net.javaguides.springboot.dto.EmployeeSnapshot;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Pre-serialized, gzip compressed JSON of the whole employee list behind GET /api/employees/snapshot.
+// Built on startup, then rebuilt on a background thread once employees.snapshot.debounce has passed after
+// the first committed write, so a burst of writes costs one rebuild and the snapshot is at most about one
+// debounce plus one rebuild behind. Readers get the current immutable snapshot without touching the
+// database or Jackson. Only the compressed bytes are kept, a fraction of the JSON size.
+@Component
+@Profile("!reactive")
+public class EmployeeListSnapshot implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeListSnapshot.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final TransactionTemplate transaction;
+
+    private final ObjectWriter viewWriter;
+
+    private final Duration debounce;
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-list-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private volatile EmployeeSnapshot snapshot;
+
+    public EmployeeListSnapshot(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${employees.snapshot.debounce:1s}") Duration debounce) {
+        this.employeeRepository = employeeRepository;
+        // read-write on purpose: a replica could still be behind the write that triggered the rebuild
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.viewWriter = objectMapper.writerFor(EmployeeView.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.debounce = debounce;
+    }
+
+    // empty until the first build has finished
+    public Optional<EmployeeSnapshot> get() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Employee list snapshot could not be built, retrying after the next write", e);
+        }
+    }
+
+    // only committed writes, a rolled back write does not trigger a rebuild
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(this::scheduledRebuild, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // the flag is cleared before reading, so a write committed while the rows are read schedules another rebuild
+    private void scheduledRebuild() {
+        rebuildScheduled.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Employee list snapshot could not be rebuilt, keeping version {}",
+                    snapshot != null ? snapshot.version() : 0, e);
+        }
+    }
+
+    // synchronized so the startup build and a scheduled rebuild cannot publish out of order
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(BUFFER_SIZE);
+        CRC32 checksum = new CRC32();
+        AtomicInteger size = new AtomicInteger();
+        try (GZIPOutputStream gzip = new BestCompressionGzipOutputStream(compressed);
+             CheckedOutputStream json = new CheckedOutputStream(gzip, checksum)) {
+            writeEmployees(json, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // checksum of the JSON itself, so an unchanged list keeps its ETag across rebuilds and restarts
+        String eTag = Long.toHexString(checksum.getValue()) + "-" + size.get();
+        EmployeeSnapshot rebuilt = new EmployeeSnapshot(builds.incrementAndGet(), size.get(), eTag, compressed.toByteArray());
+        snapshot = rebuilt;
+        LOGGER.info("Employee list snapshot {} built, {} employees, {} bytes gzipped, {} ms", rebuilt.version(),
+                rebuilt.size(), rebuilt.gzippedJson().length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void writeEmployees(OutputStream out, AtomicInteger size) throws IOException {
+        try (JsonGenerator generator = viewWriter.createGenerator(out)) {
+            generator.writeStartArray();
+            transaction.executeWithoutResult(status -> {
+                try (Stream<EmployeeView> employees = employeeRepository.streamAllViews()) {
+                    employees.forEach(employee -> {
+                        write(generator, employee);
+                        size.incrementAndGet();
+                    });
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    private void write(JsonGenerator generator, EmployeeView employee) {
+        try {
+            viewWriter.writeValue(generator, employee);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    // built rarely and served many times, so the smallest output is worth the extra compression time
+    private static final class BestCompressionGzipOutputStream extends GZIPOutputStream {
+
+        BestCompressionGzipOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
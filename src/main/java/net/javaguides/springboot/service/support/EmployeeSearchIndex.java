@@ -0,0 +1,488 @@
+package net.javaguides.springboot.service.support;
+
+import net.javaguides.springboot.dto.EmployeeSearchResult;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// In-memory inverted index over first name, last name and email behind GET /api/employees/search.
+// Every token is indexed under its trigrams and its one and two character prefixes, so a query token is
+// found anywhere inside a name or an email without a LIKE '%x%' scan. Built by streaming the table on
+// startup, then kept current from the EmployeeChangedEvents of committed writes.
+// A changed employee gets a new document number and the old one becomes a tombstone, so posting lists only
+// grow at their end and stay sorted for the intersection; lists of common grams turn into bitmaps.
+// They are rebuilt without the tombstones once a quarter of the documents are tombstones.
+@Component
+@Profile("!reactive")
+public class EmployeeSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // a name counts twice as much as the email, an exact token more than a prefix, a prefix more than a substring
+    private static final int NAME_WEIGHT = 2;
+
+    private static final int EMAIL_WEIGHT = 1;
+
+    private static final int EXACT = 3;
+
+    private static final int PREFIX = 2;
+
+    private static final int SUBSTRING = 1;
+
+    private static final int GRAMS_PER_QUERY_TOKEN = 2;
+
+    private static final int MIN_DOCUMENTS_TO_COMPACT = 1024;
+
+    private static final int MAX_REMEMBERED_DELETES = 100_000;
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score).reversed()
+            .thenComparingLong(Match::id);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // gram -> ascending document numbers
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    // by document number, null once the employee was changed or deleted
+    private final List<Document> documents = new ArrayList<>();
+
+    // employee id -> current document number
+    private final Map<Long, Integer> documentNumbers = new HashMap<>();
+
+    // the startup stream can still return an employee that was deleted after the stream started, and the event of a
+    // slower update can arrive after the delete of the same employee. Ids are never reused, so every later view of a
+    // deleted id is stale; the most recent deletes are kept, a write still in flight is never that far behind
+    private final Set<Long> deleted = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_REMEMBERED_DELETES;
+        }
+    });
+
+    // patches of employees the startup stream had not returned yet, applied once it does
+    private final Map<Long, List<Employee>> patchedWhileLoading = new HashMap<>();
+
+    private int tombstones;
+
+    private volatile boolean loaded;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<EmployeeView> employees = employeeRepository.streamAllViews()) {
+                    employees.forEach(this::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.warn("Search index could not be loaded, search stays unavailable", e);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            loaded = true;
+            patchedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Search index loaded, {} employees", size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // employees matching every token of the query, best match first; empty until the startup load has finished
+    public Optional<EmployeeSearchResult> search(String query, int offset, int limit) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        List<String> queryTokens = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+        if (queryTokens.isEmpty()) {
+            return Optional.of(new EmployeeSearchResult(List.of(), 0));
+        }
+        lock.readLock().lock();
+        try {
+            // bounded to the requested page and the ones before it, the worst of them on top
+            int capacity = offset + limit;
+            PriorityQueue<Match> best = new PriorityQueue<>(capacity + 1, RANKING.reversed());
+            int total = 0;
+            for (int documentNumber : candidates(queryTokens)) {
+                Document document = documents.get(documentNumber);
+                // tombstone, or all grams found but not as one contiguous token
+                int score = document != null ? document.score(queryTokens) : 0;
+                if (score == 0) {
+                    continue;
+                }
+                total++;
+                Match worst = best.peek();
+                if (best.size() < capacity || score > worst.score()
+                        || (score == worst.score() && document.id() < worst.id())) {
+                    best.add(new Match(document.id(), score, document.employee()));
+                    if (best.size() > capacity) {
+                        best.poll();
+                    }
+                }
+            }
+            List<Match> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<EmployeeView> page = ranked.stream().skip(offset).map(Match::employee).toList();
+            return Optional.of(new EmployeeSearchResult(page, total));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // applied once the write is committed, a rolled back write never shows up in search results
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> put(EmployeeView.from(event.employee()));
+            case PATCHED -> patch(event.id(), event.employee());
+            case DELETED -> remove(event.id());
+        }
+    }
+
+    private void put(EmployeeView employee) {
+        lock.writeLock().lock();
+        try {
+            if (deleted.contains(employee.id())) {
+                return;
+            }
+            Integer current = documentNumbers.get(employee.id());
+            if (current != null) {
+                // the startup stream may return an older row than a change that was already applied
+                if (documents.get(current).employee().version() > employee.version()) {
+                    return;
+                }
+                removeDocument(current);
+            }
+            addDocument(new Document(employee));
+            List<Employee> patches = patchedWhileLoading.remove(employee.id());
+            if (patches != null) {
+                patches.forEach(changes -> applyPatch(documentNumbers.get(employee.id()), changes));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void patch(long id, Employee changes) {
+        lock.writeLock().lock();
+        try {
+            Integer current = documentNumbers.get(id);
+            if (current == null) {
+                if (!loaded && !deleted.contains(id)) {
+                    patchedWhileLoading.computeIfAbsent(id, key -> new ArrayList<>()).add(changes);
+                }
+                return;
+            }
+            applyPatch(current, changes);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // changes only holds the patched fields and the new version, the rest is taken from the indexed employee
+    private void applyPatch(int documentNumber, Employee changes) {
+        EmployeeView employee = documents.get(documentNumber).employee();
+        // the startup stream may already have returned the patched row
+        if (employee.version() >= changes.getVersion()) {
+            return;
+        }
+        removeDocument(documentNumber);
+        addDocument(new Document(new EmployeeView(employee.id(),
+                Objects.requireNonNullElse(changes.getFirstName(), employee.firstName()),
+                Objects.requireNonNullElse(changes.getLastName(), employee.lastName()),
+                Objects.requireNonNullElse(changes.getEmail(), employee.email()),
+                changes.getVersion())));
+    }
+
+    private void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            deleted.add(id);
+            patchedWhileLoading.remove(id);
+            Integer current = documentNumbers.remove(id);
+            if (current != null) {
+                removeDocument(current);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(Document document) {
+        int documentNumber = documents.size();
+        documents.add(document);
+        documentNumbers.put(document.id(), documentNumber);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(documentNumber);
+        }
+    }
+
+    private void removeDocument(int documentNumber) {
+        documents.set(documentNumber, null);
+        tombstones++;
+    }
+
+    // renumbers the live documents and rebuilds the posting lists without the tombstones
+    private void compactIfNeeded() {
+        if (documents.size() < MIN_DOCUMENTS_TO_COMPACT || tombstones * 4 < documents.size()) {
+            return;
+        }
+        List<Document> live = documents.stream().filter(Objects::nonNull).toList();
+        documents.clear();
+        documentNumbers.clear();
+        postings.clear();
+        tombstones = 0;
+        live.forEach(this::addDocument);
+    }
+
+    // documents holding the rarest grams of every query token, intersected from the shortest posting list up.
+    // A superset of the matches, the remaining grams would cost more to intersect than the score check does
+    private int[] candidates(List<String> queryTokens) {
+        Set<Postings> lists = new HashSet<>();
+        for (String queryToken : queryTokens) {
+            List<Postings> tokenLists = new ArrayList<>();
+            for (String gram : queryGrams(queryToken)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                tokenLists.add(list);
+            }
+            tokenLists.sort(Comparator.comparingInt(Postings::size));
+            lists.addAll(tokenLists.subList(0, Math.min(GRAMS_PER_QUERY_TOKEN, tokenLists.size())));
+        }
+        // dense lists are ANDed word by word, sparse ones intersected as sorted arrays, smallest first
+        BitSet dense = null;
+        int[] candidates = null;
+        List<Postings> ordered = new ArrayList<>(lists);
+        ordered.sort(Comparator.comparingInt(Postings::size));
+        for (Postings list : ordered) {
+            if (list.bits == null) {
+                candidates = candidates == null ? list.toArray() : list.retainAll(candidates);
+            } else if (dense == null) {
+                dense = (BitSet) list.bits.clone();
+            } else {
+                dense.and(list.bits);
+            }
+        }
+        if (dense == null) {
+            return candidates;
+        }
+        if (candidates == null) {
+            return dense.stream().toArray();
+        }
+        BitSet bits = dense;
+        return Arrays.stream(candidates).filter(bits::get).toArray();
+    }
+
+    // short query tokens can only be prefixes, the indexed one and two character grams are prefixes
+    private static Set<String> queryGrams(String token) {
+        if (token.length() < GRAM_LENGTH) {
+            return Set.of(token);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    // lower case without diacritics, split on everything but letters and digits
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    // best match of the query token against the space separated tokens
+    private static int matchKind(String tokens, String queryToken) {
+        int best = 0;
+        for (int index = tokens.indexOf(queryToken); index >= 0 && best < EXACT; index = tokens.indexOf(queryToken, index + 1)) {
+            if (index == 0 || tokens.charAt(index - 1) == ' ') {
+                int end = index + queryToken.length();
+                best = Math.max(best, end == tokens.length() || tokens.charAt(end) == ' ' ? EXACT : PREFIX);
+            } else if (queryToken.length() >= GRAM_LENGTH) {
+                best = Math.max(best, SUBSTRING);
+            }
+        }
+        return best;
+    }
+
+    // the tokens are joined into one string per field, scoring a candidate touches a handful of objects
+    private record Document(long id, String names, String email, EmployeeView employee) {
+
+        Document(EmployeeView employee) {
+            this(employee.id(), String.join(" ", Stream.concat(tokenize(employee.firstName()).stream(),
+                    tokenize(employee.lastName()).stream()).toList()), String.join(" ", tokenize(employee.email())), employee);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String token : (names + " " + email).split(" ")) {
+                for (int length = 1; length < GRAM_LENGTH && length <= token.length(); length++) {
+                    grams.add(token.substring(0, length));
+                }
+                for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+                    grams.add(token.substring(i, i + GRAM_LENGTH));
+                }
+            }
+            return grams;
+        }
+
+        // sum of the best match of each query token, 0 when one of them does not match at all
+        int score(List<String> queryTokens) {
+            int score = 0;
+            for (String queryToken : queryTokens) {
+                int best = NAME_WEIGHT * matchKind(names, queryToken);
+                // the email only counts when it matches better than the names
+                if (best < EMAIL_WEIGHT * EXACT) {
+                    best = Math.max(best, EMAIL_WEIGHT * matchKind(email, queryToken));
+                }
+                if (best == 0) {
+                    return 0;
+                }
+                score += best;
+            }
+            return score;
+        }
+    }
+
+    private record Match(long id, int score, EmployeeView employee) {
+    }
+
+    // Ascending document numbers, a growable array while sparse and a bitmap once the list holds more than one in
+    // DENSE_RATIO of the document numbers, where the bitmap is no larger than the array
+    private static final class Postings {
+
+        private static final int DENSE_RATIO = 32;
+
+        private static final int MIN_DENSE_SIZE = 4096;
+
+        private int[] documentNumbers = new int[4];
+
+        private BitSet bits;
+
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return bits != null ? bits.stream().toArray() : Arrays.copyOf(documentNumbers, size);
+        }
+
+        void add(int documentNumber) {
+            size++;
+            if (bits != null) {
+                bits.set(documentNumber);
+                return;
+            }
+            if (size - 1 == documentNumbers.length) {
+                if (size > MIN_DENSE_SIZE && (long) size * DENSE_RATIO > documentNumber) {
+                    bits = new BitSet(documentNumber + 1);
+                    for (int i = 0; i < size - 1; i++) {
+                        bits.set(documentNumbers[i]);
+                    }
+                    bits.set(documentNumber);
+                    documentNumbers = null;
+                    return;
+                }
+                documentNumbers = Arrays.copyOf(documentNumbers, (size - 1) * 2);
+            }
+            documentNumbers[size - 1] = documentNumber;
+        }
+
+        // the candidates that are also in this list; binary search when this list is much longer, merge otherwise
+        int[] retainAll(int[] candidates) {
+            if (bits != null) {
+                return Arrays.stream(candidates).filter(bits::get).toArray();
+            }
+            int[] retained = new int[candidates.length];
+            int count = 0;
+            if (size > candidates.length * 8) {
+                for (int candidate : candidates) {
+                    if (Arrays.binarySearch(documentNumbers, 0, size, candidate) >= 0) {
+                        retained[count++] = candidate;
+                    }
+                }
+            } else {
+                int i = 0;
+                for (int candidate : candidates) {
+                    while (i < size && documentNumbers[i] < candidate) {
+                        i++;
+                    }
+                    if (i < size && documentNumbers[i] == candidate) {
+                        retained[count++] = candidate;
+                    }
+                }
+            }
+            return Arrays.copyOf(retained, count);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package net.javaguides.springboot.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.javaguides.springboot.dto.PendingEmployee;
+import net.javaguides.springboot.exception.ResourceNotException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Write-behind mode of POST /api/employees (employees.write-behind.enabled=true).
+// Creates are validated up front, queued and acknowledged right away; one flusher thread drains the
+// queue into saveEmployees batches of up to batch-size, waiting at most linger for a batch to fill.
+// A full queue rejects the create instead of blocking the request thread.
+// It stops in a phase after the web server's graceful shutdown, so requests still in flight are queued
+// and written before the flusher exits; a create arriving once stop has begun is rejected, never dropped.
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employees.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehind implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeWriteBehind.class);
+
+    // how long the status of a create can still be looked up after it was queued
+    private static final Duration STATUS_RETENTION = Duration.ofHours(1);
+
+    private static final int MAX_TRACKED_STATUSES = 100_000;
+
+    private final EmployeeService employeeService;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmailBloomFilter emailFilter;
+
+    private final BlockingQueue<PendingCreate> queue;
+
+    private final int batchSize;
+
+    private final Duration linger;
+
+    private final Cache<UUID, PendingEmployee> statuses = Caffeine.newBuilder()
+            .expireAfterWrite(STATUS_RETENTION)
+            .maximumSize(MAX_TRACKED_STATUSES)
+            .build();
+
+    // emails that are queued but not yet inserted, so the same email cannot be queued twice
+    private final Set<String> queuedEmails = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+
+    // shared by offer, exclusive in stop: once stopping is set no create can join the queue the flusher finishes
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+    private boolean stopping;
+
+    private Thread flusher;
+
+    public EmployeeWriteBehind(EmployeeService employeeService, EmployeeRepository employeeRepository,
+                               EmailBloomFilter emailFilter,
+                               @Value("${employees.write-behind.queue-capacity:10000}") int queueCapacity,
+                               @Value("${employees.write-behind.batch-size:50}") int batchSize,
+                               @Value("${employees.write-behind.linger:50ms}") Duration linger) {
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+        this.emailFilter = emailFilter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.linger = linger;
+    }
+
+    // queues the create, empty when the queue is full; RejectedExecutionException once stop has begun
+    public Optional<PendingEmployee> offer(Employee employee) {
+        validate(employee);
+        stopLock.readLock().lock();
+        try {
+            if (stopping) {
+                throw new RejectedExecutionException("Write-behind is stopping, employee not queued");
+            }
+            String email = normalize(employee.getEmail());
+            if (!queuedEmails.add(email)) {
+                throw new ResourceNotException("Employee with given email is already queued: " + employee.getEmail());
+            }
+            PendingEmployee pending = PendingEmployee.queued(UUID.randomUUID());
+            statuses.put(pending.ticket(), pending);
+            if (!queue.offer(new PendingCreate(pending.ticket(), employee))) {
+                queuedEmails.remove(email);
+                statuses.invalidate(pending.ticket());
+                return Optional.empty();
+            }
+            return Optional.of(pending);
+        } finally {
+            stopLock.readLock().unlock();
+        }
+    }
+
+    public Optional<PendingEmployee> getStatus(UUID ticket) {
+        return Optional.ofNullable(statuses.getIfPresent(ticket));
+    }
+
+    // same checks the synchronous create makes before inserting
+    private void validate(Employee employee) {
+        if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+            throw new ResourceNotException("Employee firstName, lastName and email are required");
+        }
+        if (emailFilter.mightContain(employee.getEmail()) && employeeRepository.findByEmail(employee.getEmail()).isPresent()) {
+            throw new ResourceNotException("Employee already exist with given email: " + employee.getEmail());
+        }
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        running = true;
+        flusher = new Thread(this::drain, "employee-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // stops taking new batches only once everything queued has been written
+    @Override
+    public void stop() {
+        stopLock.writeLock().lock();
+        try {
+            stopping = true;
+            running = false;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // started before and stopped only after the web server (WebServerStartStopLifecycle, at
+    // SMART_LIFECYCLE_PHASE - 1024), so no request can offer any more once the queue drains; the same
+    // phase as the server would leave their order undefined
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void drain() {
+        List<PendingCreate> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(linger.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + linger.toNanos();
+                while (batch.size() < batchSize) {
+                    PendingCreate next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Write-behind batch of {} employees failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // one batched insert; if it is rejected as a whole each create is retried alone so only the bad ones fail
+    void flush(List<PendingCreate> batch) {
+        try {
+            List<Employee> saved = employeeService.saveEmployees(batch.stream().map(PendingCreate::newEntity).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                completed(batch.get(i), PendingEmployee.created(batch.get(i).ticket(), saved.get(i).getId()));
+            }
+        } catch (RuntimeException batchFailure) {
+            for (PendingCreate create : batch) {
+                try {
+                    Employee saved = employeeService.saveEmployee(create.newEntity());
+                    completed(create, PendingEmployee.created(create.ticket(), saved.getId()));
+                } catch (RuntimeException e) {
+                    completed(create, PendingEmployee.failed(create.ticket(), e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void completed(PendingCreate create, PendingEmployee status) {
+        statuses.put(create.ticket(), status);
+        queuedEmails.remove(normalize(create.employee().getEmail()));
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    record PendingCreate(UUID ticket, Employee employee) {
+
+        // a fresh entity per attempt, a rolled back batch leaves generated ids on the entities it tried
+        Employee newEntity() {
+            return Employee.builder()
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .build();
+        }
+    }
+}
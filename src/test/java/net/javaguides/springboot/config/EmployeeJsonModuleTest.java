@@ -0,0 +1,56 @@
+package net.javaguides.springboot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+public class EmployeeJsonModuleTest {
+
+    // configured like Spring Boot's ObjectMapper, once with Jackson's bean (de)serializers and once with the module
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ObjectMapper moduleMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new EmployeeJsonModule()).build();
+
+    // JUnit test for writing the same JSON as the bean serializers
+    @DisplayName("JUnit test for writing the same JSON as the bean serializers")
+    @Test
+    public void givenEmployeesAndViews_whenSerialize_thenMatchBeanSerializers() throws Exception {
+        // given-precondition or setup
+        List<Object> values = List.of(
+                Employee.builder().id(1L).firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").version(3).build(),
+                Employee.builder().id(2L).firstName("José \"Pepe\"").lastName(null).email("jose@gmail.com").build(),
+                new EmployeeView(3L, "Suresh", "basya", "suresh@gmail.com", 7),
+                new EmployeeView(4L, null, "Müller", null, 0));
+
+        // when-action or behaviour that we are going to test
+        // then-verity the result
+        for (Object value : values) {
+            Assertions.assertThat(moduleMapper.writeValueAsString(value)).isEqualTo(beanMapper.writeValueAsString(value));
+        }
+        Assertions.assertThat(moduleMapper.writeValueAsString(values)).isEqualTo(beanMapper.writeValueAsString(values));
+    }
+
+    // JUnit test for reading the same Employee as the bean deserializer
+    @DisplayName("JUnit test for reading the same Employee as the bean deserializer")
+    @Test
+    public void givenEmployeeJson_whenDeserialize_thenMatchBeanDeserializer() throws Exception {
+        // given-precondition or setup
+        String json = "{\"id\":\"5\",\"firstName\":\"Ramesh\",\"version\":9,\"unknown\":{\"nested\":[1,2]},"
+                + "\"lastName\":null,\"email\":\"ramesh@gmail.com\"}";
+
+        // when-action or behaviour that we are going to test
+        Employee employee = moduleMapper.readValue(json, Employee.class);
+
+        // then-verity the result
+        Assertions.assertThat(employee).usingRecursiveComparison().isEqualTo(beanMapper.readValue(json, Employee.class));
+        Assertions.assertThat(employee.getId()).isEqualTo(5L);
+        Assertions.assertThat(employee.getVersion()).isZero();
+        Assertions.assertThat(employee.getEmail()).isEqualTo("ramesh@gmail.com");
+    }
+}
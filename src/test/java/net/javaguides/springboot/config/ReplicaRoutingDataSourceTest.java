@@ -0,0 +1,163 @@
+package net.javaguides.springboot.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replica1Connection;
+
+    @Mock
+    private Connection replica2Connection;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(2));
+
+    @BeforeEach
+    public void setup() {
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    // JUnit test for read-only connections spread over the replicas
+    @DisplayName("JUnit test for read-only connections spread over the replicas")
+    @Test
+    public void givenTwoReplicas_whenGetConnection_thenTakeReplicasInTurn() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(replica1.getConnection()).willReturn(replica1Connection);
+        BDDMockito.given(replica2.getConnection()).willReturn(replica2Connection);
+
+        // when-action or behaviour that we are going to test
+        List<Connection> connections = List.of(routingDataSource.getConnection(), routingDataSource.getConnection(),
+                routingDataSource.getConnection());
+
+        // then-verity the result
+        Assertions.assertThat(connections).containsExactly(replica1Connection, replica2Connection, replica1Connection);
+        BDDMockito.then(primary).shouldHaveNoInteractions();
+    }
+
+    // JUnit test for read-only connections while pinned to the primary
+    @DisplayName("JUnit test for read-only connections while pinned to the primary")
+    @Test
+    public void givenPinnedToPrimary_whenGetConnection_thenUsePrimary() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(primary.getConnection()).willReturn(primaryConnection);
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        // when-action or behaviour that we are going to test
+        Connection connection = routingDataSource.getConnection();
+
+        // then-verity the result
+        Assertions.assertThat(connection).isSameAs(primaryConnection);
+        BDDMockito.then(replica1).shouldHaveNoInteractions();
+        BDDMockito.then(replica2).shouldHaveNoInteractions();
+    }
+
+    // JUnit test for a write request in the read-your-writes filter
+    @DisplayName("JUnit test for a write request in the read-your-writes filter")
+    @Test
+    public void givenWriteRequest_whenFilter_thenPinAndSetLastWriteCookie() throws Exception {
+        // given-precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/employees");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        // when-action or behaviour that we are going to test
+        filter.doFilter(request, response, new MockFilterChain(new RecordingServlet(pinned)));
+
+        // then-verity the result
+        Assertions.assertThat(pinned).isTrue();
+        Assertions.assertThat(response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE)).isNotNull();
+        Assertions.assertThat(ReplicaRoutingDataSource.isPinnedToPrimary()).isFalse();
+    }
+
+    // JUnit test for a read shortly after the client's own write
+    @DisplayName("JUnit test for a read shortly after the client's own write")
+    @Test
+    public void givenRecentWriteCookie_whenFilterRead_thenPinToPrimary() throws Exception {
+        // given-precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis())));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        // when-action or behaviour that we are going to test
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new RecordingServlet(pinned)));
+
+        // then-verity the result
+        Assertions.assertThat(pinned).isTrue();
+    }
+
+    // JUnit test for a read after the read-your-writes window
+    @DisplayName("JUnit test for a read after the read-your-writes window")
+    @Test
+    public void givenExpiredWriteCookie_whenFilterRead_thenDoNotPin() throws Exception {
+        // given-precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE,
+                Long.toString(System.currentTimeMillis() - 5_000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean(true);
+
+        // when-action or behaviour that we are going to test
+        filter.doFilter(request, response, new MockFilterChain(new RecordingServlet(pinned)));
+
+        // then-verity the result
+        Assertions.assertThat(pinned).isFalse();
+        Assertions.assertThat(response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE)).isNull();
+    }
+
+    // records whether the request was handled while pinned to the primary
+    private static class RecordingServlet extends HttpServlet {
+
+        private final AtomicBoolean pinned;
+
+        RecordingServlet(AtomicBoolean pinned) {
+            this.pinned = pinned;
+        }
+
+        @Override
+        protected void service(HttpServletRequest request,
+                               HttpServletResponse response) {
+            pinned.set(ReplicaRoutingDataSource.isPinnedToPrimary());
+        }
+    }
+}
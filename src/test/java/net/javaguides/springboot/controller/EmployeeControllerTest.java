@@ -1,8 +1,17 @@
 package net.javaguides.springboot.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.dto.EmployeeMultiGetResult;
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeSearchResult;
+import net.javaguides.springboot.dto.EmployeeSnapshot;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.support.EmployeeChangeFeed;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,16 +21,27 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @WebMvcTest
 public class EmployeeControllerTest {
@@ -32,6 +52,9 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -62,16 +85,90 @@ public class EmployeeControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
-    // JUnit test for GET All Employee REST API
-    @DisplayName("JUnit test for GET All Employee REST API")
+    // Junit test for POST bulk employees REST API
+    @DisplayName("Junit test for POST bulk employees REST API")
     @Test
-    public void givenListOfEmployees_whenGetAllEmployee_thenReturnEmployeeList() throws Exception {
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnSavedEmployees() throws Exception {
         // given-precondition or setup
         List<Employee> listOfEmployee = new ArrayList<>();
         listOfEmployee.add(Employee.builder().firstName("Suresh").lastName("basya").email("suresh@gmail.com").build());
         listOfEmployee.add(Employee.builder().firstName("Undertaker").lastName("cina").email("undertaker@gmail.com").build());
         // stubbing
-        BDDMockito.given(employeeService.getAllEmployees()).willReturn(listOfEmployee);
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployee)));
+
+        // then-verity the result
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(listOfEmployee.size())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].email", CoreMatchers.is("undertaker@gmail.com")));
+    }
+
+    // JUnit test for POST bulk employees REST API in CBOR
+    @DisplayName("JUnit test for POST bulk employees REST API in CBOR")
+    @Test
+    public void givenCborListOfEmployees_whenCreateEmployees_thenReturnCborSavedEmployees() throws Exception {
+        // given-precondition or setup
+        ObjectMapper cborMapper = new CBORMapper();
+        List<Employee> listOfEmployee = List.of(
+                Employee.builder().firstName("Suresh").lastName("basya").email("suresh@gmail.com").build(),
+                Employee.builder().firstName("Undertaker").lastName("cina").email("undertaker@gmail.com").build());
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/bulk")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(listOfEmployee)));
+
+        // then-verity the result
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertThat(cborMapper.readValue(body, Employee[].class))
+                .extracting(Employee::getEmail)
+                .containsExactly("suresh@gmail.com", "undertaker@gmail.com");
+    }
+
+    // JUnit test for GET All Employee REST API in CBOR
+    @DisplayName("JUnit test for GET All Employee REST API in CBOR")
+    @Test
+    public void givenCborAccept_whenGetAllEmployee_thenReturnCborEmployeeList() throws Exception {
+        // given-precondition or setup
+        List<EmployeeView> listOfEmployee = List.of(new EmployeeView(1L, "Suresh", "basya", "suresh@gmail.com", 3L));
+        BDDMockito.given(employeeService.getEmployees(0L, EmployeeService.DEFAULT_PAGE_SIZE))
+                .willReturn(new SliceImpl<>(listOfEmployee));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // then-verity the result
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        // version is never in the body
+        Assertions.assertThat(new CBORMapper().readValue(body, EmployeeView[].class))
+                .containsExactly(new EmployeeView(1L, "Suresh", "basya", "suresh@gmail.com", 0L));
+    }
+
+    // JUnit test for GET All Employee REST API
+    @DisplayName("JUnit test for GET All Employee REST API")
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployee_thenReturnEmployeeList() throws Exception {
+        // given-precondition or setup
+        List<EmployeeView> listOfEmployee = new ArrayList<>();
+        listOfEmployee.add(new EmployeeView(1L, "Suresh", "basya", "suresh@gmail.com", 0L));
+        listOfEmployee.add(new EmployeeView(2L, "Undertaker", "cina", "undertaker@gmail.com", 0L));
+        // stubbing
+        BDDMockito.given(employeeService.getEmployees(0L, EmployeeService.DEFAULT_PAGE_SIZE))
+                .willReturn(new SliceImpl<>(listOfEmployee));
 
         // when-action or behaviour that we are going to test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"));
@@ -79,7 +176,54 @@ public class EmployeeControllerTest {
         // then-verity the result
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(listOfEmployee.size())));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(listOfEmployee.size())))
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"));
+    }
+
+    // JUnit test for GET All Employee REST API with If-None-Match
+    @DisplayName("JUnit test for GET All Employee REST API with matching If-None-Match")
+    @Test
+    public void givenMatchingETag_whenGetAllEmployee_thenReturn304() throws Exception {
+        // given-precondition or setup
+        List<EmployeeView> listOfEmployee = List.of(new EmployeeView(1L, "Suresh", "basya", "suresh@gmail.com", 0L));
+        BDDMockito.given(employeeService.getEmployees(0L, EmployeeService.DEFAULT_PAGE_SIZE))
+                .willReturn(new SliceImpl<>(listOfEmployee));
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .header("If-None-Match", eTag));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    // JUnit test for GET All Employee REST API with cursor
+    @DisplayName("JUnit test for GET All Employee REST API with cursor")
+    @Test
+    public void givenAfterAndLimit_whenGetAllEmployee_thenReturnPageWithNextCursor() throws Exception {
+        // given-precondition or setup
+        List<EmployeeView> listOfEmployee = new ArrayList<>();
+        listOfEmployee.add(new EmployeeView(11L, "Suresh", "basya", "suresh@gmail.com", 0L));
+        listOfEmployee.add(new EmployeeView(12L, "Undertaker", "cina", "undertaker@gmail.com", 0L));
+        // stubbing
+        BDDMockito.given(employeeService.getEmployees(10L, 2))
+                .willReturn(new SliceImpl<>(listOfEmployee, PageRequest.ofSize(2), true));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("after", "10")
+                .param("limit", "2"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor", "12"))
+                .andExpect(MockMvcResultMatchers.header().string("Link", CoreMatchers.containsString("after=12")));
     }
 
     // +ve Scenario - valid employee ID
@@ -94,7 +238,7 @@ public class EmployeeControllerTest {
                 .lastName("basya")
                 .email("suresh@gmail.com")
                 .build();
-        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+        BDDMockito.given(employeeService.getEmployeeViewById(employeeId)).willReturn(Optional.of(EmployeeView.from(employee)));
 
         // when-action or behaviour that we are going to test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId));
@@ -102,9 +246,54 @@ public class EmployeeControllerTest {
         // then-verity the result
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"0\""))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.firstName", CoreMatchers.is(employee.getFirstName())))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.lastName", CoreMatchers.is(employee.getLastName())))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version").doesNotExist());
+    }
+
+    // Conditional GET - ETag still matches
+    // JUnit test for GET Employee by id REST API with If-None-Match
+    @DisplayName("JUnit test for GET Employee by id REST API with matching If-None-Match")
+    @Test
+    public void givenMatchingETag_whenGetEmployeeById_thenReturn304WithoutLoadingEmployee() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .header("If-None-Match", "\"3\""));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(employeeService, Mockito.never()).getEmployeeViewById(employeeId);
+    }
+
+    // Conditional GET - employee changed since
+    // JUnit test for GET Employee by id REST API with If-None-Match
+    @DisplayName("JUnit test for GET Employee by id REST API with stale If-None-Match")
+    @Test
+    public void givenStaleETag_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        EmployeeView employee = new EmployeeView(employeeId, "Suresh", "basya", "suresh@gmail.com", 4L);
+        BDDMockito.given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(4L));
+        BDDMockito.given(employeeService.getEmployeeViewById(employeeId)).willReturn(Optional.of(employee));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .header("If-None-Match", "\"3\""));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.email())));
     }
 
     // -ve Scenario - valid employee ID
@@ -119,7 +308,7 @@ public class EmployeeControllerTest {
                 .lastName("basya")
                 .email("suresh@gmail.com")
                 .build();
-        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
+        BDDMockito.given(employeeService.getEmployeeViewById(employeeId)).willReturn(Optional.empty());
 
         // when-action or behaviour that we are going to test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId));
@@ -163,7 +352,8 @@ public class EmployeeControllerTest {
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.firstName", CoreMatchers.is(updatedEmployee.getFirstName())))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.lastName", CoreMatchers.is(updatedEmployee.getLastName())))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(updatedEmployee.getEmail())));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(updatedEmployee.getEmail())))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"0\""));
 
     }
 
@@ -202,13 +392,134 @@ public class EmployeeControllerTest {
 
     }
 
+    // +ve Scenario
+    // Junit test for patch employee REST API
+    @DisplayName("Junit test for patch employee REST API")
+    @Test
+    public void givenChangedFields_whenPatchEmployee_thenReturn204() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.any(Employee.class),
+                        ArgumentMatchers.isNull()))
+                .willReturn(Optional.of(4L));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"undertaker@gmail.com\"}"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isNoContent())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""));
+        Mockito.verify(employeeService).patchEmployee(ArgumentMatchers.eq(employeeId),
+                ArgumentMatchers.argThat(changes -> changes.getFirstName() == null
+                        && "undertaker@gmail.com".equals(changes.getEmail())),
+                ArgumentMatchers.isNull());
+    }
+
+    //  -ve Scenario
+    // Junit test for patch employee REST API
+    @DisplayName("Junit test for patch employee REST API")
+    @Test
+    public void givenChangedFields_whenPatchEmployee_thenReturn404() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.any(Employee.class),
+                        ArgumentMatchers.isNull()))
+                .willReturn(Optional.empty());
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"undertaker@gmail.com\"}"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    // Junit test for update employee REST API with a concurrent update
+    @DisplayName("Junit test for update employee REST API with a concurrent update")
+    @Test
+    public void givenConcurrentUpdate_whenUpdateEmployee_thenReturn409() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build();
+        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+        BDDMockito.given(employeeService.updateEmployee(Mockito.any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Undertaker\",\"lastName\":\"Bob\",\"email\":\"undertaker@gmail.com\"}"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isConflict())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    // Junit test for update employee REST API with a stale If-Match
+    @DisplayName("Junit test for update employee REST API with a stale If-Match")
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .version(3)
+                .build();
+        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Undertaker\",\"lastName\":\"Bob\",\"email\":\"undertaker@gmail.com\"}"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andDo(MockMvcResultHandlers.print());
+        Mockito.verify(employeeService, Mockito.never()).updateEmployee(Mockito.any(Employee.class));
+    }
+
+    // Junit test for patch employee REST API with a stale If-Match
+    @DisplayName("Junit test for patch employee REST API with a stale If-Match")
+    @Test
+    public void givenStaleIfMatch_whenPatchEmployee_thenReturn412() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.any(Employee.class),
+                        ArgumentMatchers.eq(2L)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"undertaker@gmail.com\"}"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     // JUnit test for delete employee REST API
     @DisplayName("JUnit test for delete employee REST API")
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
         // given-precondition or setup
         long employeeId = 1L;
-        BDDMockito.willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        BDDMockito.given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         // when-action or behaviour that we are going to test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employeeId));
@@ -217,5 +528,371 @@ public class EmployeeControllerTest {
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print());
     }
-}
 
+    // JUnit test for delete employee REST API with unknown id
+    @DisplayName("JUnit test for delete employee REST API with unknown id")
+    @Test
+    public void givenUnknownEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employeeId));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    // JUnit test for bulk delete employees REST API
+    @DisplayName("JUnit test for bulk delete employees REST API")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.deleteEmployees(Set.of(1L, 2L, 3L))).willReturn(2);
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees")
+                .param("ids", "1,2,3"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.content().string("2 Employees Deleted Successfully"));
+    }
+
+    // JUnit test for export employees REST API
+    @DisplayName("JUnit test for export employees REST API")
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenReturnNdjson() throws Exception {
+        // given-precondition or setup
+        List<Employee> listOfEmployee = new ArrayList<>();
+        listOfEmployee.add(Employee.builder().id(1L).firstName("Suresh").lastName("basya").email("suresh@gmail.com").build());
+        listOfEmployee.add(Employee.builder().id(2L).firstName("Undertaker").lastName("cina").email("undertaker@gmail.com").build());
+        // stubbing
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            listOfEmployee.forEach(consumer);
+            return null;
+        }).given(employeeService).exportEmployees(ArgumentMatchers.any());
+
+        // when-action or behaviour that we are going to test
+        ResultActions asyncResponse = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResponse.andReturn()));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        objectMapper.writeValueAsString(listOfEmployee.get(0)) + "\n"
+                                + objectMapper.writeValueAsString(listOfEmployee.get(1)) + "\n"));
+    }
+
+    // JUnit test for snapshot REST API with gzip
+    @DisplayName("JUnit test for snapshot REST API serving the gzipped bytes as they are")
+    @Test
+    public void givenSnapshot_whenGetSnapshotAcceptingGzip_thenReturnStoredBytes() throws Exception {
+        // given-precondition or setup
+        byte[] gzippedJson = gzip("[{\"id\":1,\"firstName\":\"Ramesh\",\"lastName\":\"Fadatare\",\"email\":\"ramesh@gmail.com\"}]");
+        BDDMockito.given(employeeService.getEmployeeSnapshot())
+                .willReturn(Optional.of(new EmployeeSnapshot(3L, 1, "5eed-1", gzippedJson)));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/snapshot")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"5eed-1-gzip\""))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, CoreMatchers.containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().bytes(gzippedJson));
+    }
+
+    // JUnit test for snapshot REST API without gzip
+    @DisplayName("JUnit test for snapshot REST API decompressing for clients without gzip")
+    @Test
+    public void givenSnapshot_whenGetSnapshotWithoutGzip_thenReturnJson() throws Exception {
+        // given-precondition or setup
+        String json = "[{\"id\":1,\"firstName\":\"Ramesh\",\"lastName\":\"Fadatare\",\"email\":\"ramesh@gmail.com\"}]";
+        BDDMockito.given(employeeService.getEmployeeSnapshot())
+                .willReturn(Optional.of(new EmployeeSnapshot(3L, 1, "5eed-1", gzip(json))));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/snapshot")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"5eed-1\""))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().string(json));
+    }
+
+    // JUnit test for snapshot REST API with a matching ETag
+    @DisplayName("JUnit test for snapshot REST API with a matching ETag")
+    @Test
+    public void givenUnchangedSnapshot_whenGetSnapshotIfNoneMatch_thenReturn304() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.getEmployeeSnapshot())
+                .willReturn(Optional.of(new EmployeeSnapshot(3L, 1, "5eed-1", gzip("[]"))));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/snapshot")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"5eed-1-gzip\""));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().bytes(new byte[0]));
+    }
+
+    // JUnit test for GET Employee by id REST API in CBOR
+    @DisplayName("JUnit test for GET Employee by id REST API giving CBOR its own ETag")
+    @Test
+    public void givenCborAccept_whenGetEmployeeById_thenReturnCborETagAndVaryAccept() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.getEmployeeViewById(employeeId))
+                .willReturn(Optional.of(new EmployeeView(employeeId, "Suresh", "basya", "suresh@gmail.com", 3L)));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3-cbor\""))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, CoreMatchers.containsString(HttpHeaders.ACCEPT)))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    // JUnit test for GET Employee by id REST API in CBOR with the ETag of the JSON representation
+    @DisplayName("JUnit test for GET Employee by id REST API not matching the JSON ETag for CBOR")
+    @Test
+    public void givenJsonETag_whenGetEmployeeByIdInCbor_thenReturnCborEmployee() throws Exception {
+        // given-precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+        BDDMockito.given(employeeService.getEmployeeViewById(employeeId))
+                .willReturn(Optional.of(new EmployeeView(employeeId, "Suresh", "basya", "suresh@gmail.com", 3L)));
+
+        // when-action or behaviour that we are going to test
+        ResultActions notModified = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // then-verity the result
+        notModified.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, CoreMatchers.containsString(HttpHeaders.ACCEPT)));
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3-cbor\""))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    // JUnit test for GET All Employee REST API with the ETag of the other representation
+    @DisplayName("JUnit test for GET All Employee REST API with an ETag per representation")
+    @Test
+    public void givenJsonPageETag_whenGetAllEmployeeInCbor_thenReturnCborPage() throws Exception {
+        // given-precondition or setup
+        List<EmployeeView> listOfEmployee = List.of(new EmployeeView(1L, "Suresh", "basya", "suresh@gmail.com", 0L));
+        BDDMockito.given(employeeService.getEmployees(0L, EmployeeService.DEFAULT_PAGE_SIZE))
+                .willReturn(new SliceImpl<>(listOfEmployee));
+        String jsonETag = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, CoreMatchers.containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, jsonETag));
+
+        // then-verity the result
+        String cborETag = response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, CoreMatchers.containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertThat(cborETag).isEqualTo(jsonETag.replaceFirst("\"$", "-cbor\""));
+    }
+
+    // JUnit test for change feed REST API resuming from Last-Event-ID
+    @DisplayName("JUnit test for change feed REST API resuming from Last-Event-ID")
+    @Test
+    public void givenLastEventId_whenStreamChanges_thenSubscribeFromIt() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(changeFeed.subscribe("lx3k-41")).willReturn(Optional.of(new SseEmitter()));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "lx3k-41"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.request().asyncStarted());
+        Mockito.verify(changeFeed).subscribe("lx3k-41");
+    }
+
+    // JUnit test for change feed REST API with all subscriber slots taken
+    @DisplayName("JUnit test for change feed REST API with all subscriber slots taken")
+    @Test
+    public void givenMaxSubscribers_whenStreamChanges_thenReturn503() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(changeFeed.subscribe(null)).willReturn(Optional.empty());
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    // JUnit test for multi-get employees REST API
+    @DisplayName("JUnit test for multi-get employees REST API")
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesAndMissingIds() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.getEmployeeViewsByIds(List.of(3L, 1L, 9L))).willReturn(new EmployeeMultiGetResult(
+                List.of(new EmployeeView(3L, "John", "Cena", "cena@gmail.com", 0),
+                        new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0)),
+                List.of(9L)));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("ids", "3,1,9"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].id", CoreMatchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[1].id", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missing[0]", CoreMatchers.is(9)));
+        Mockito.verify(employeeService, Mockito.never()).getEmployees(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+    }
+
+    // JUnit test for multi-get employees REST API with too many ids
+    @DisplayName("JUnit test for multi-get employees REST API with too many ids")
+    @Test
+    public void givenTooManyIds_whenMultiGetEmployees_thenReturn400() throws Exception {
+        // given-precondition or setup
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id <= EmployeeService.MAX_MULTI_GET_SIZE; id++) {
+            ids.add(id);
+        }
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids)));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andDo(MockMvcResultHandlers.print());
+        Mockito.verify(employeeService, Mockito.never()).getEmployeeViewsByIds(ArgumentMatchers.anyCollection());
+    }
+
+    // JUnit test for lookup employees REST API
+    @DisplayName("JUnit test for lookup employees REST API")
+    @Test
+    public void givenNamePairs_whenLookupEmployees_thenReturnMatchesPerName() throws Exception {
+        // given-precondition or setup
+        List<EmployeeName> names = List.of(new EmployeeName("Ramesh", "Fadatare"), new EmployeeName("John", "Cena"));
+        BDDMockito.given(employeeService.lookupEmployees(names)).willReturn(List.of(
+                new EmployeeLookupResult("Ramesh", "Fadatare", List.of(
+                        new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0),
+                        new EmployeeView(7L, "Ramesh", "Fadatare", "rf@gmail.com", 0))),
+                new EmployeeLookupResult("John", "Cena", List.of())));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(names)));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].employees.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].employees[1].email", CoreMatchers.is("rf@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].firstName", CoreMatchers.is("John")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].employees.size()", CoreMatchers.is(0)));
+    }
+
+    // JUnit test for lookup employees REST API with too many names
+    @DisplayName("JUnit test for lookup employees REST API with too many names")
+    @Test
+    public void givenTooManyNamePairs_whenLookupEmployees_thenReturn400() throws Exception {
+        // given-precondition or setup
+        List<EmployeeName> names = new ArrayList<>();
+        for (int i = 0; i <= EmployeeService.MAX_LOOKUP_SIZE; i++) {
+            names.add(new EmployeeName("Ramesh", "Fadatare" + i));
+        }
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(names)));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andDo(MockMvcResultHandlers.print());
+        Mockito.verify(employeeService, Mockito.never()).lookupEmployees(ArgumentMatchers.anyList());
+    }
+
+    // JUnit test for search employees REST API
+    @DisplayName("JUnit test for search employees REST API")
+    @Test
+    public void givenSearchQuery_whenSearchEmployees_thenReturnRankedPage() throws Exception {
+        // given-precondition or setup
+        List<EmployeeView> employees = List.of(new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0),
+                new EmployeeView(2L, "Rameshwar", "Kumar", "rk@gmail.com", 0));
+        BDDMockito.given(employeeService.searchEmployees("rame", 0, 2))
+                .willReturn(Optional.of(new EmployeeSearchResult(employees, 5)));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search")
+                .param("q", "rame")
+                .param("limit", "2"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string("X-Total-Count", "5"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName", CoreMatchers.is("Ramesh")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].firstName", CoreMatchers.is("Rameshwar")));
+    }
+
+    // JUnit test for search employees REST API while the index is loading
+    @DisplayName("JUnit test for search employees REST API while the index is loading")
+    @Test
+    public void givenIndexLoading_whenSearchEmployees_thenReturn503() throws Exception {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.searchEmployees("rame", 0, EmployeeService.DEFAULT_PAGE_SIZE))
+                .willReturn(Optional.empty());
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search").param("q", "rame"));
+
+        // then-verity the result
+        response.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+    }
+
+    private static byte[] gzip(String json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
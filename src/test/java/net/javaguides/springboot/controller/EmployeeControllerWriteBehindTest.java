@@ -0,0 +1,144 @@
+package net.javaguides.springboot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.PendingEmployee;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.support.EmployeeChangeFeed;
+import net.javaguides.springboot.service.support.EmployeeWriteBehind;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+// EmployeeController with employees.write-behind.enabled=true
+@WebMvcTest(EmployeeController.class)
+public class EmployeeControllerWriteBehindTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @MockBean
+    private EmployeeWriteBehind writeBehind;
+
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Junit test for POST employees REST API in write-behind mode
+    @DisplayName("Junit test for POST employees REST API in write-behind mode")
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturn202WithStatusUrl() throws Exception {
+        // given-precondition or setup
+        Employee employee = Employee.builder().firstName("Suresh").lastName("basya").email("suresh@gmail.com").build();
+        UUID ticket = UUID.randomUUID();
+        BDDMockito.given(writeBehind.offer(ArgumentMatchers.any(Employee.class)))
+                .willReturn(Optional.of(PendingEmployee.queued(ticket)));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then-verity the result
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Location", "http://localhost/api/employees/pending/" + ticket))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("QUEUED")));
+        Mockito.verify(employeeService, Mockito.never()).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    // Junit test for POST employees REST API when the write-behind queue is full
+    @DisplayName("Junit test for POST employees REST API when the write-behind queue is full")
+    @Test
+    public void givenFullQueue_whenCreateEmployee_thenReturn429() throws Exception {
+        // given-precondition or setup
+        Employee employee = Employee.builder().firstName("Suresh").lastName("basya").email("suresh@gmail.com").build();
+        BDDMockito.given(writeBehind.offer(ArgumentMatchers.any(Employee.class))).willReturn(Optional.empty());
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then-verity the result
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+    }
+
+    // Junit test for POST employees REST API while shutting down
+    @DisplayName("Junit test for POST employees REST API once the write-behind is stopping")
+    @Test
+    public void givenStoppingWriteBehind_whenCreateEmployee_thenReturn503() throws Exception {
+        // given-precondition or setup
+        Employee employee = Employee.builder().firstName("Suresh").lastName("basya").email("suresh@gmail.com").build();
+        BDDMockito.given(writeBehind.offer(ArgumentMatchers.any(Employee.class)))
+                .willThrow(new RejectedExecutionException("Write-behind is stopping, employee not queued"));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then-verity the result
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+    }
+
+    // JUnit test for GET pending employee REST API
+    @DisplayName("JUnit test for GET pending employee REST API")
+    @Test
+    public void givenCreatedTicket_whenGetPendingEmployee_thenReturnEmployeeId() throws Exception {
+        // given-precondition or setup
+        UUID ticket = UUID.randomUUID();
+        BDDMockito.given(writeBehind.getStatus(ticket)).willReturn(Optional.of(PendingEmployee.created(ticket, 42L)));
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/pending/{ticket}", ticket));
+
+        // then-verity the result
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employeeId", CoreMatchers.is(42)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").doesNotExist());
+    }
+
+    // JUnit test for GET pending employee REST API with an unknown ticket
+    @DisplayName("JUnit test for GET pending employee REST API with an unknown ticket")
+    @Test
+    public void givenUnknownTicket_whenGetPendingEmployee_thenReturn404() throws Exception {
+        // given-precondition or setup
+        UUID ticket = UUID.randomUUID();
+        BDDMockito.given(writeBehind.getStatus(ticket)).willReturn(Optional.empty());
+
+        // when-action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/pending/{ticket}", ticket));
+
+        // then-verity the result
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
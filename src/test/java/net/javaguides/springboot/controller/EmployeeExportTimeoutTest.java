@@ -0,0 +1,75 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.config.AsyncTimeoutConfig;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.support.EmployeeChangeFeed;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+// the export on a running Tomcat with a short async timeout, which MockMvc does not enforce
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.mvc.async.request-timeout=200ms")
+public class EmployeeExportTimeoutTest {
+
+    // only the controller on the web stack, not a @SpringBootConfiguration so the slice tests of this package
+    // keep finding the application
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+    @Import({EmployeeController.class, AsyncTimeoutConfig.class})
+    static class WebOnlyApplication {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
+    // JUnit test for an export running longer than the async request timeout
+    @DisplayName("JUnit test for an export running longer than the async request timeout")
+    @Test
+    public void givenSlowExport_whenExportEmployees_thenStreamAllRowsPastTimeout() throws Exception {
+        // given-precondition or setup
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            for (long id = 1; id <= 5; id++) {
+                consumer.accept(Employee.builder().id(id).firstName("First" + id).lastName("Last" + id)
+                        .email("employee" + id + "@gmail.com").build());
+                // 5 x 100ms, more than twice the timeout
+                Thread.sleep(100);
+            }
+            return null;
+        }).given(employeeService).exportEmployees(ArgumentMatchers.any());
+
+        // when-action or behaviour that we are going to test
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/export")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // then-verity the result
+        Assertions.assertThat(response.statusCode()).isEqualTo(200);
+        Assertions.assertThat(response.body().lines()).hasSize(5);
+        Assertions.assertThat(response.body()).endsWith("\"email\":\"employee5@gmail.com\"}\n");
+    }
+}
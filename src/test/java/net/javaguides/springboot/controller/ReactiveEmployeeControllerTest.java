@@ -0,0 +1,160 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactiveEmployeeController.class)
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveEmployeeService employeeService;
+
+    // Junit test for POST employees REST API
+    @DisplayName("Junit test for reactive POST employees REST API")
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        // given-precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build();
+        BDDMockito.given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer((invocation) -> Mono.just(invocation.getArgument(0)));
+
+        // when-action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        // then-verity the result
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+                .jsonPath("$.lastName").isEqualTo(employee.getLastName())
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    // JUnit test for GET All Employee REST API
+    @DisplayName("JUnit test for reactive GET All Employee REST API")
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployee_thenReturnEmployeesList() {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.getEmployees(0L, EmployeeService.DEFAULT_PAGE_SIZE)).willReturn(Flux.just(
+                Employee.builder().id(1L).firstName("Suresh").lastName("basya").email("suresh@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Undertaker").lastName("cina").email("undertaker@gmail.com").build()));
+
+        // when-action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees").exchange();
+
+        // then-verity the result
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].id").isEqualTo(2);
+    }
+
+    // JUnit test for GET Employee export REST API
+    @DisplayName("JUnit test for reactive GET Employee export REST API")
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenReturnNewlineDelimitedJson() {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.exportEmployees()).willReturn(Flux.just(
+                Employee.builder().id(1L).firstName("Suresh").lastName("basya").email("suresh@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Undertaker").lastName("cina").email("undertaker@gmail.com").build()));
+
+        // when-action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        // then-verity the result
+        response.expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Employee.class).hasSize(2);
+    }
+
+    // JUnit test for GET Employee by id REST API
+    @DisplayName("JUnit test for reactive GET Employee by id REST API")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() {
+        // given-precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Suresh").lastName("basya").email("suresh@gmail.com").version(2L).build();
+        BDDMockito.given(employeeService.getEmployeeById(1L)).willReturn(Mono.just(employee));
+
+        // when-action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", 1L).exchange();
+
+        // then-verity the result
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"2\"")
+                .expectBody()
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    // -ve Scenario - valid employee ID
+    // JUnit test for GET Employee by id REST API
+    @DisplayName("JUnit test for reactive GET Employee by id REST API with an unknown id")
+    @Test
+    public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.getEmployeeById(1L)).willReturn(Mono.empty());
+
+        // when-action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", 1L).exchange();
+
+        // then-verity the result
+        response.expectStatus().isNotFound();
+    }
+
+    // JUnit test for PATCH employee REST API with an unknown id
+    @DisplayName("JUnit test for reactive PATCH employee REST API with an unknown id")
+    @Test
+    public void givenInvalidEmployeeId_whenPatchEmployee_thenReturn404() {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(1L), ArgumentMatchers.any(Employee.class)))
+                .willReturn(Mono.just(false));
+
+        // when-action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.patch().uri("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"firstName\":\"Ram\"}")
+                .exchange();
+
+        // then-verity the result
+        response.expectStatus().isNotFound();
+    }
+
+    // JUnit test for DELETE employee REST API
+    @DisplayName("JUnit test for reactive DELETE employee REST API")
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn200() {
+        // given-precondition or setup
+        BDDMockito.given(employeeService.deleteEmployee(1L)).willReturn(Mono.just(true));
+
+        // when-action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.delete().uri("/api/employees/{id}", 1L).exchange();
+
+        // then-verity the result
+        response.expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Employee Deleted Successfully");
+    }
+}
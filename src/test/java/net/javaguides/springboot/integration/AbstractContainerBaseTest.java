@@ -10,10 +10,11 @@ public abstract class AbstractContainerBaseTest {
     @Container
     static final MySQLContainer MY_SQL_CONTAINER;
     static {
-        MY_SQL_CONTAINER = new MySQLContainer("mysql:latest")
+        MY_SQL_CONTAINER = (MySQLContainer) new MySQLContainer("mysql:latest")
                 .withUsername("usrename")
                 .withPassword("passwors")
-                .withDatabaseName("ems");
+                .withDatabaseName("ems")
+                .withUrlParam("rewriteBatchedStatements", "true");
         MY_SQL_CONTAINER.start();
     }
 
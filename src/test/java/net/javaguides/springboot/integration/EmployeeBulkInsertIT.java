@@ -0,0 +1,77 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Rough throughput benchmark of the per-row create path against the batched bulk path,
+// run it with: mvn test -Dtest=EmployeeBulkInsertIT
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class EmployeeBulkInsertIT extends AbstractContainerBaseTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("Rows per second of saveEmployee in a loop")
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    public void givenEmployees_whenSaveEmployeeOneByOne_thenReportRowsPerSecond(int rows) {
+        List<Employee> employees = employees("single", rows);
+
+        long start = System.nanoTime();
+        employees.forEach(employeeService::saveEmployee);
+        long elapsed = System.nanoTime() - start;
+
+        report("saveEmployee", rows, elapsed);
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(rows);
+    }
+
+    @DisplayName("Rows per second of saveEmployees with JDBC batching")
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    public void givenEmployees_whenSaveEmployees_thenReportRowsPerSecond(int rows) {
+        List<Employee> employees = employees("bulk", rows);
+
+        long start = System.nanoTime();
+        employeeService.saveEmployees(employees);
+        long elapsed = System.nanoTime() - start;
+
+        report("saveEmployees", rows, elapsed);
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(rows);
+    }
+
+    private static List<Employee> employees(String prefix, int rows) {
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email(prefix + i + "@gmail.com")
+                    .build());
+        }
+        return employees;
+    }
+
+    private static void report(String path, int rows, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%s: %d rows in %.2f s = %.0f rows/s%n", path, rows, seconds, rows / seconds);
+    }
+}
@@ -0,0 +1,64 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeIdSequenceInitializer;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// committed rows: Hibernate reads employees_seq in a transaction of its own, which would wait on the test's
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmployeeIdSequenceInitializer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeIdSequenceIT extends AbstractContainerBaseTest {
+
+    private static final long EXISTING_ID = 1_000_000;
+
+    @Autowired
+    private EmployeeIdSequenceInitializer sequenceInitializer;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("Delete from employees where email in ('existing@gmail.com', 'new@gmail.com')");
+    }
+
+    // JUnit test for an existing database whose sequence starts below its ids
+    @DisplayName("JUnit test for new ids allocated above the existing ones")
+    @Test
+    public void givenRowsAboveSequence_whenInitializeAndSave_thenAllocateAboveExistingIds() {
+        // given-precondition or setup
+        jdbcTemplate.update("Insert into employees (id, first_name, last_name, email, version) "
+                + "values (?, 'Ramesh', 'Fadatare', 'existing@gmail.com', 0)", EXISTING_ID);
+        // as created by ddl-auto next to a table that already had rows
+        jdbcTemplate.update("Update employees_seq set next_val = 1");
+
+        // when-action or behaviour that we are going to test
+        sequenceInitializer.afterPropertiesSet();
+        Employee savedEmployee = employeeRepository.saveAndFlush(Employee.builder()
+                .firstName("Suresh")
+                .lastName("Ramesh")
+                .email("new@gmail.com")
+                .build());
+
+        // then-verity the result
+        Assertions.assertThat(savedEmployee.getId()).isGreaterThan(EXISTING_ID);
+        Assertions.assertThat(jdbcTemplate.queryForObject("Select next_val from employees_seq", Long.class))
+                .isGreaterThanOrEqualTo(EXISTING_ID + Employee.ID_ALLOCATION_SIZE);
+    }
+}
@@ -0,0 +1,194 @@
+package net.javaguides.springboot.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Release load test of /api/employees: a fixed arrival rate of create/get/list/update/delete calls
+// (open model, see OpenModelLoadGenerator) against the app on a random port, with HdrHistogram
+// percentile reports per endpoint in target/load-test. Fails when p99, throughput or the error rate
+// is past its threshold. run it with:
+// mvn test -Dtest=EmployeeLoadTestIT [-Dload.rate=200 -Dload.duration=60 -Dload.mix=create:10,get:40,list:30,update:15,delete:5
+//                                     -Dload.max-p99-ms=500 -Dload.min-throughput-ratio=0.95 -Dload.max-error-ratio=0.01]
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+public class EmployeeLoadTestIT extends AbstractContainerBaseTest {
+
+    private static final int SEEDED_EMPLOYEES = 1_000;
+
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup", 10));
+
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration", 30));
+
+    private static final String MIX = System.getProperty("load.mix", "create:10,get:40,list:30,update:15,delete:5");
+
+    private static final double MAX_P99_MILLIS = Double.parseDouble(System.getProperty("load.max-p99-ms", "500"));
+
+    private static final double MIN_THROUGHPUT_RATIO = Double.parseDouble(System.getProperty("load.min-throughput-ratio", "0.95"));
+
+    private static final double MAX_ERROR_RATIO = Double.parseDouble(System.getProperty("load.max-error-ratio", "0.01"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+
+    private final AtomicLong emails = new AtomicLong();
+
+    // get and update work on the seeded employees, delete only on the ones the load created
+    private List<Employee> seededEmployees;
+
+    private final ConcurrentLinkedDeque<Long> createdIds = new ConcurrentLinkedDeque<>();
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAllInBatch();
+        List<Employee> employees = new ArrayList<>(SEEDED_EMPLOYEES);
+        for (int i = 0; i < SEEDED_EMPLOYEES; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("seeded" + i + "@gmail.com")
+                    .build());
+        }
+        seededEmployees = employeeService.saveEmployees(employees);
+    }
+
+    @DisplayName("p99, throughput and error rate of /api/employees at a fixed arrival rate")
+    @Test
+    public void givenFixedArrivalRate_whenLoadEmployeesApi_thenStayWithinThresholds() throws Exception {
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(mix());
+        generator.run(RATE, WARMUP);
+
+        OpenModelLoadGenerator.Result result = generator.run(RATE, DURATION);
+        result.writeReports(Path.of("target", "load-test"));
+        System.out.print(result);
+
+        SoftAssertions softly = new SoftAssertions();
+        result.endpoints().values().forEach(endpoint -> softly.assertThat(endpoint.percentileMillis(99))
+                .as("p99 of %s in ms", endpoint.name())
+                .isLessThanOrEqualTo(MAX_P99_MILLIS));
+        softly.assertThat(result.throughput()).as("requests per second").isGreaterThanOrEqualTo(RATE * MIN_THROUGHPUT_RATIO);
+        softly.assertThat((double) result.errors() / result.requests()).as("error ratio").isLessThanOrEqualTo(MAX_ERROR_RATIO);
+        softly.assertAll();
+    }
+
+    private List<OpenModelLoadGenerator.Operation> mix() {
+        return Arrays.stream(MIX.split(","))
+                .map(entry -> entry.trim().split(":"))
+                .map(entry -> new OpenModelLoadGenerator.Operation(entry[0], Integer.parseInt(entry[1]), operation(entry[0])))
+                .toList();
+    }
+
+    private Supplier<CompletableFuture<? extends HttpResponse<?>>> operation(String name) {
+        return switch (name) {
+            case "create" -> this::create;
+            case "get" -> () -> send(HttpRequest.newBuilder(uri("/api/employees/" + seededEmployee().getId())).GET());
+            case "list" -> () -> send(HttpRequest.newBuilder(
+                    uri("/api/employees?limit=20&after=" + seededEmployee().getId())).GET());
+            case "update" -> this::update;
+            case "delete" -> this::delete;
+            default -> throw new IllegalArgumentException("unknown operation in load.mix: " + name);
+        };
+    }
+
+    private CompletableFuture<? extends HttpResponse<?>> create() {
+        Employee employee = Employee.builder()
+                .firstName("Load")
+                .lastName("Test")
+                .email("load" + emails.incrementAndGet() + "@gmail.com")
+                .build();
+        return send(HttpRequest.newBuilder(uri("/api/employees"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(employee))))
+                .thenApply(response -> {
+                    if (response.statusCode() == 201) {
+                        createdIds.add(readId(response.body()));
+                    }
+                    return response;
+                });
+    }
+
+    private CompletableFuture<? extends HttpResponse<?>> update() {
+        Employee employee = seededEmployee();
+        Employee changes = Employee.builder()
+                .firstName("Updated" + ThreadLocalRandom.current().nextInt(1000))
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+        return send(HttpRequest.newBuilder(uri("/api/employees/" + employee.getId()))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json(changes))));
+    }
+
+    // until a create has completed there is nothing of our own to delete, so a create is sent instead
+    private CompletableFuture<? extends HttpResponse<?>> delete() {
+        Long id = createdIds.poll();
+        if (id == null) {
+            return create();
+        }
+        return send(HttpRequest.newBuilder(uri("/api/employees/" + id)).DELETE());
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest.Builder request) {
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Employee seededEmployee() {
+        return seededEmployees.get(ThreadLocalRandom.current().nextInt(seededEmployees.size()));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String json(Employee employee) {
+        try {
+            return objectMapper.writeValueAsString(employee);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long readId(String body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
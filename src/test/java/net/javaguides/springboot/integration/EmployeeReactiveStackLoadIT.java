@@ -0,0 +1,262 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.SpringBootTestingApplication;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Servlet stack (default profile) against the WebFlux + R2DBC stack (reactive profile) on the same schema.
+// Slow clients hold open NDJSON exports they read at a few KB/s, which gives the memory and threads each
+// open connection costs, while fast clients measure the list endpoint throughput next to them.
+// run it with: mvn test -Dtest=EmployeeReactiveStackLoadIT [-Dload.slow-clients=100 -Dload.clients=200]
+public class EmployeeReactiveStackLoadIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = 100_000;
+
+    // every open export holds a database connection on both stacks, keep pool + slow clients below
+    // the 151 max_connections of the MySQL container
+    private static final int SLOW_CLIENTS = Integer.getInteger("load.slow-clients", 100);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+
+    private static final int POOL_SIZE = SLOW_CLIENTS + 20;
+
+    private static final int SLOW_READ_BYTES = 256;
+
+    private static final Duration SLOW_READ_INTERVAL = Duration.ofMillis(100);
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    @DisplayName("Memory per open connection and throughput with slow clients, servlet against reactive stack")
+    @Test
+    public void givenSlowClients_whenLoadBothStacks_thenReportMemoryAndThroughput() throws Exception {
+        Result servlet = run(true,
+                "spring.datasource.url=" + MY_SQL_CONTAINER.getJdbcUrl(),
+                "spring.datasource.username=" + MY_SQL_CONTAINER.getUsername(),
+                "spring.datasource.password=" + MY_SQL_CONTAINER.getPassword(),
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                // the export of the servlet stack runs on the MVC async executor
+                "spring.task.execution.pool.core-size=" + SLOW_CLIENTS);
+        Result reactive = run(false,
+                "spring.profiles.active=reactive",
+                "spring.r2dbc.url=r2dbc:mysql://" + MY_SQL_CONTAINER.getHost() + ":"
+                        + MY_SQL_CONTAINER.getMappedPort(3306) + "/" + MY_SQL_CONTAINER.getDatabaseName(),
+                "spring.r2dbc.username=" + MY_SQL_CONTAINER.getUsername(),
+                "spring.r2dbc.password=" + MY_SQL_CONTAINER.getPassword(),
+                "spring.r2dbc.pool.max-size=" + POOL_SIZE);
+
+        System.out.printf("%d slow clients, %d clients, %ds measured%n", SLOW_CLIENTS, CLIENTS, MEASUREMENT.toSeconds());
+        System.out.println("servlet:  " + servlet);
+        System.out.println("reactive: " + reactive);
+
+        Assertions.assertThat(servlet.requests()).isPositive();
+        Assertions.assertThat(reactive.requests()).isPositive();
+    }
+
+    // properties are passed as command line arguments so they win over application.properties
+    private Result run(boolean seed, String... properties) throws Exception {
+        String[] args = Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false")
+                .run(args)) {
+            // the servlet stack runs first, JPA creates the schema the reactive stack reads
+            if (seed) {
+                context.getBean(EmployeeRepository.class).deleteAllInBatch();
+                seed(context.getBean(EmployeeService.class));
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+            load(client, port, WARMUP);
+
+            long heapBefore = usedHeapAfterGc();
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+            List<Socket> slowClients = openSlowClients(port);
+            AtomicBoolean reading = new AtomicBoolean(true);
+            Thread slowReader = new Thread(() -> readSlowly(slowClients, reading), "slow-reader");
+            slowReader.start();
+            try {
+                Thread.sleep(5_000);
+                long heapPerConnection = (usedHeapAfterGc() - heapBefore) / SLOW_CLIENTS;
+                int threadsPerConnection = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+                Load load = load(client, port, MEASUREMENT);
+                return new Result(heapPerConnection, threadsPerConnection, load);
+            } finally {
+                reading.set(false);
+                slowReader.join();
+                for (Socket socket : slowClients) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    private static void seed(EmployeeService employeeService) {
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+        employeeService.saveEmployees(employees);
+    }
+
+    private static List<Socket> openSlowClients(int port) throws IOException {
+        byte[] request = ("GET /api/employees/export HTTP/1.1\r\nHost: localhost\r\nAccept: application/x-ndjson\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        List<Socket> sockets = new ArrayList<>(SLOW_CLIENTS);
+        for (int i = 0; i < SLOW_CLIENTS; i++) {
+            Socket socket = new Socket();
+            // small receive window so the server side fills up instead of the client kernel buffer
+            socket.setReceiveBufferSize(4 * 1024);
+            socket.connect(new InetSocketAddress("localhost", port));
+            OutputStream out = socket.getOutputStream();
+            out.write(request);
+            out.flush();
+            sockets.add(socket);
+        }
+        return sockets;
+    }
+
+    private static void readSlowly(List<Socket> sockets, AtomicBoolean reading) {
+        byte[] buffer = new byte[SLOW_READ_BYTES];
+        while (reading.get()) {
+            for (Socket socket : sockets) {
+                try {
+                    InputStream in = socket.getInputStream();
+                    int available = in.available();
+                    if (available > 0) {
+                        in.read(buffer, 0, Math.min(available, SLOW_READ_BYTES));
+                    }
+                } catch (IOException e) {
+                    // a closed export only drops out of the measurement
+                }
+            }
+            try {
+                Thread.sleep(SLOW_READ_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static Load load(HttpClient client, int port, Duration duration) throws InterruptedException {
+        long[][] latencies = new long[CLIENTS][];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientIndex = c;
+            clients.execute(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long after = ThreadLocalRandom.current().nextLong(ROWS);
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/employees?limit=20&after=" + after)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                } finally {
+                    latencies[clientIndex] = Arrays.copyOf(samples, count);
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Load(all, errors.get(), duration);
+    }
+
+    private record Load(long[] sortedLatencies, long errors, Duration duration) {
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d errors",
+                    sortedLatencies.length / (double) duration.toSeconds(),
+                    percentileMillis(50), percentileMillis(99), percentileMillis(100), errors);
+        }
+    }
+
+    private record Result(long heapPerConnection, int extraThreads, Load load) {
+
+        long requests() {
+            return load.sortedLatencies().length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d heap bytes and %.2f threads per open slow connection, %s",
+                    heapPerConnection, extraThreads / (double) SLOW_CLIENTS, load);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package net.javaguides.springboot.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Before/after allocation comparison of the list read path: managed entities in a read-write
+// transaction (the old path) against the EmployeeView projection in a read-only transaction.
+// Fails when the projection does not allocate less per page than the entities.
+// run it with: mvn test -Dtest=EmployeeReadPathAllocationIT
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class EmployeeReadPathAllocationIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = 10_000;
+
+    private static final int PAGE_SIZE = EmployeeService.MAX_PAGE_SIZE;
+
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAllInBatch();
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+        employeeService.saveEmployees(employees);
+    }
+
+    @DisplayName("Allocated bytes per page read, entities against projection")
+    @Test
+    public void givenEmployees_whenReadPage_thenViewAllocatesLessThanEntity() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        // the keyset page the list endpoint used to read, as managed entities
+        Supplier<List<Long>> entityRead = () -> readWrite.execute(status ->
+                entityManager.createQuery("Select e from Employee e where e.id > :after order by e.id", Employee.class)
+                        .setParameter("after", 0L)
+                        // one row more tells whether there is a next page, like the Slice of the view query
+                        .setMaxResults(PAGE_SIZE + 1)
+                        .getResultList()
+                        .stream()
+                        .limit(PAGE_SIZE)
+                        .map(Employee::getId)
+                        .toList());
+        Supplier<List<Long>> viewRead = () -> employeeService.getEmployees(0L, PAGE_SIZE)
+                .map(EmployeeView::id)
+                .getContent();
+
+        Assertions.assertThat(viewRead.get()).isEqualTo(entityRead.get());
+
+        long entityBytes = allocatedBytesPerCall(entityRead);
+        long viewBytes = allocatedBytesPerCall(viewRead);
+
+        System.out.printf("entity page read: %d bytes/op%n", entityBytes);
+        System.out.printf("view page read:   %d bytes/op%n", viewBytes);
+        Assertions.assertThat(viewBytes).isLessThan(entityBytes);
+    }
+
+    private static long allocatedBytesPerCall(Supplier<?> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // warm up JIT and statement caches before measuring
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / ITERATIONS;
+    }
+}
@@ -0,0 +1,133 @@
+package net.javaguides.springboot.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.testcontainers.containers.MySQLContainer;
+
+// Read/write splitting against two MySQL instances, the container of AbstractContainerBaseTest as the
+// primary and a second one as the replica. There is no replication between them, so where a row was
+// read from shows which of the two served the query.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+public class EmployeeReadReplicaIT extends AbstractContainerBaseTest {
+
+    static final MySQLContainer REPLICA_CONTAINER;
+    static {
+        REPLICA_CONTAINER = (MySQLContainer) new MySQLContainer("mysql:latest")
+                .withUsername("usrename")
+                .withPassword("passwors")
+                .withDatabaseName("ems");
+        REPLICA_CONTAINER.start();
+    }
+
+    @DynamicPropertySource
+    public static void replicaPropertySource(DynamicPropertyRegistry registry) {
+        registry.add("employees.datasource.replica-urls", REPLICA_CONTAINER::getJdbcUrl);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            REPLICA_CONTAINER.getJdbcUrl(), REPLICA_CONTAINER.getUsername(), REPLICA_CONTAINER.getPassword()));
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+        // the schema is only created on the primary, the replica gets a copy of the table
+        String createTable = jdbcTemplate.queryForObject("show create table employees", (rs, rowNum) -> rs.getString(2));
+        replicaJdbcTemplate.execute("drop table if exists employees");
+        replicaJdbcTemplate.execute(createTable);
+    }
+
+    @DisplayName("Integration test for GET employees page served by the replica")
+    @Test
+    public void givenEmployeeOnlyOnReplica_whenGetAllEmployees_thenReturnReplicaRow() throws Exception {
+        // given-precondition or setup
+        replicaJdbcTemplate.update("insert into employees (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)",
+                1_000_001L, "Suresh", "basya", "suresh@gmail.com");
+
+        // when-action or behaviour that we are going to test
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+
+                // then-verity the result
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is("suresh@gmail.com")));
+    }
+
+    @DisplayName("Integration test for GET employee by id cached from the primary, not from a lagging replica")
+    @Test
+    public void givenStaleRowOnReplica_whenGetEmployeeById_thenCacheAndReturnPrimaryRow() throws Exception {
+        // given-precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Ramesh").lastName("Fadatare").email("old-ramesh@gmail.com").build());
+        employee.setEmail("ramesh@gmail.com");
+        employee = employeeRepository.save(employee);
+        // the replica has not seen the update yet
+        replicaJdbcTemplate.update("insert into employees (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)",
+                employee.getId(), "Ramesh", "Fadatare", "old-ramesh@gmail.com");
+
+        // when-action or behaviour that we are going to test
+        // then-verity the result
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employee.getId()))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.header().string("ETag", "\"" + employee.getVersion() + "\""))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("ramesh@gmail.com")));
+        }
+    }
+
+    @DisplayName("Integration test for reading back a create within the read-your-writes window")
+    @Test
+    public void givenCreatedEmployee_whenGetWithLastWriteCookie_thenReadFromPrimary() throws Exception {
+        // given-precondition or setup
+        Employee employee = Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build();
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.cookie().exists("employees-last-write"))
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        Cookie lastWrite = created.getResponse().getCookie("employees-last-write");
+
+        // when-action or behaviour that we are going to test
+        // then-verity the result
+        // other clients read the replica, which has not seen the insert
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(0)));
+        // the writing client is kept on the primary
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").cookie(lastWrite))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is((int) id)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is(employee.getEmail())));
+    }
+}
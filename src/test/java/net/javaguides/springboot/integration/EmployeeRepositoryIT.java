@@ -11,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -245,4 +246,32 @@ public class EmployeeRepositoryIT extends AbstractContainerBaseTest{
         // then-verity the result
         Assertions.assertThat(savedEmployee).isNotNull();
     }
+
+    // JUnit test for streaming all employees against MySQL
+    @DisplayName("JUnit test for streaming all employees against MySQL")
+    @Test
+    public void givenEmployeeList_whenStreamAll_thenStreamEveryEmployee() {
+        // given-precondition or setup
+        employeeRepository.deleteAll();
+        employeeRepository.save(Employee.builder()
+                .firstName("Jhon")
+                .lastName("Joe")
+                .email("joe@gmail.com")
+                .build());
+        employeeRepository.save(Employee.builder()
+                .firstName("Ram")
+                .lastName("R")
+                .email("ram@gmail.com")
+                .build());
+        employeeRepository.flush();
+
+        // when-action or behaviour that we are going to test
+        List<String> emails;
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            emails = employees.map(Employee::getEmail).toList();
+        }
+
+        // then-verity the result
+        Assertions.assertThat(emails).containsExactlyInAnyOrder("joe@gmail.com", "ram@gmail.com");
+    }
 }
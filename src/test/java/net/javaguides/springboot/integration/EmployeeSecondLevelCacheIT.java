@@ -0,0 +1,162 @@
+package net.javaguides.springboot.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+
+// Second-level cache of Employee and query cache of the name lookups, checked through the Hibernate
+// statistics: repeated lookups must not prepare a single statement, writes must not leave stale entries.
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class EmployeeSecondLevelCacheIT extends AbstractContainerBaseTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email("ramesh@gmail.com")
+                .build());
+    }
+
+    @DisplayName("Integration test for repeated lookups served from the second-level and query cache")
+    @Test
+    public void givenLookedUpEmployee_whenLookUpAgain_thenNoSql() {
+        // given-precondition or setup
+        lookUp("Ramesh", "Fadatare");
+        statistics.clear();
+
+        // when-action or behaviour that we are going to test
+        Lookup lookup = lookUp("Ramesh", "Fadatare");
+
+        // then-verity the result
+        Assertions.assertThat(lookup.byId()).isNotNull();
+        Assertions.assertThat(lookup.byJpql()).isNotNull();
+        Assertions.assertThat(lookup.byJpqlNamedParam()).isNotNull();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @DisplayName("Integration test for cached lookups after updateEmployee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenLookupsSeeUpdate() {
+        // given-precondition or setup
+        lookUp("Ramesh", "Fadatare");
+        Employee savedEmployee = employeeService.getEmployeeById(employee.getId()).orElseThrow();
+        savedEmployee.setFirstName("Ram");
+
+        // when-action or behaviour that we are going to test
+        employeeService.updateEmployee(savedEmployee);
+
+        // then-verity the result
+        Assertions.assertThat(lookUp("Ramesh", "Fadatare").byJpql()).isNull();
+        Lookup lookup = lookUp("Ram", "Fadatare");
+        Assertions.assertThat(lookup.byId().getFirstName()).isEqualTo("Ram");
+        Assertions.assertThat(lookup.byJpql().getId()).isEqualTo(employee.getId());
+        Assertions.assertThat(lookup.byJpqlNamedParam().getId()).isEqualTo(employee.getId());
+    }
+
+    @DisplayName("Integration test for cached lookups after deleteEmployee")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenLookupsMiss() {
+        // given-precondition or setup
+        lookUp("Ramesh", "Fadatare");
+
+        // when-action or behaviour that we are going to test
+        employeeService.deleteEmployee(employee.getId());
+
+        // then-verity the result
+        Lookup lookup = lookUp("Ramesh", "Fadatare");
+        Assertions.assertThat(lookup.byId()).isNull();
+        Assertions.assertThat(lookup.byJpql()).isNull();
+        Assertions.assertThat(lookup.byJpqlNamedParam()).isNull();
+    }
+
+    @DisplayName("Integration test for patch and delete evicting only the written employee")
+    @Test
+    public void givenCachedEmployees_whenPatchAndDeleteEmployee_thenOthersStayCached() {
+        // given-precondition or setup
+        Employee other = employeeService.saveEmployee(Employee.builder()
+                .firstName("Suresh")
+                .lastName("Ramesh")
+                .email("suresh@gmail.com")
+                .build());
+        Employee deleted = employeeService.saveEmployee(Employee.builder()
+                .firstName("Basya")
+                .lastName("Suri")
+                .email("basya@gmail.com")
+                .build());
+        lookUp("Ramesh", "Fadatare");
+        employeeRepository.findById(other.getId());
+        employeeRepository.findById(deleted.getId());
+
+        // when-action or behaviour that we are going to test
+        employeeService.patchEmployee(employee.getId(), Employee.builder().firstName("Ram").build(), null);
+        employeeService.deleteEmployee(deleted.getId());
+        statistics.clear();
+
+        // then-verity the result
+        Assertions.assertThat(employeeRepository.findById(other.getId())).isPresent();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(employeeRepository.findById(employee.getId()).orElseThrow().getFirstName()).isEqualTo("Ram");
+        Assertions.assertThat(employeeRepository.findById(deleted.getId())).isEmpty();
+    }
+
+    @DisplayName("Integration test for patch and delete as single statements")
+    @Test
+    public void givenEmployee_whenPatchAndDelete_thenOneStatementEach() {
+        // given-precondition or setup
+        statistics.clear();
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> patchedAtVersion = employeeRepository.updatePartially(employee.getId(), employee.getVersion(), "Ram", null, null);
+        long conditionalPatchStatements = statistics.getPrepareStatementCount();
+        Optional<Long> patched = employeeRepository.updatePartially(employee.getId(), null, null, "Kumar", null);
+        long patchStatements = statistics.getPrepareStatementCount();
+        employeeRepository.deleteEmployeeById(employee.getId());
+
+        // then-verity the result
+        Assertions.assertThat(patchedAtVersion).contains(employee.getVersion() + 1);
+        Assertions.assertThat(patched).contains(employee.getVersion() + 2);
+        Assertions.assertThat(conditionalPatchStatements).isEqualTo(1);
+        Assertions.assertThat(patchStatements).isEqualTo(2);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        Assertions.assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
+
+    // every repository call runs in its own transaction and session, like separate requests
+    private Lookup lookUp(String firstName, String lastName) {
+        return new Lookup(employeeRepository.findById(employee.getId()).orElse(null),
+                employeeRepository.findByJPQL(firstName, lastName),
+                employeeRepository.findByJPQLNamedParam(firstName, lastName));
+    }
+
+    private record Lookup(Employee byId, Employee byJpql, Employee byJpqlNamedParam) {
+    }
+}
@@ -0,0 +1,156 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.SpringBootTestingApplication;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-model load test of the blocking list endpoint, platform-thread mode against the
+// virtual-threads profile: every client sends its next request as soon as the previous one returns.
+// Run it with: mvn test -Dtest=EmployeeThreadingModeLoadIT [-Dload.clients=2000]
+public class EmployeeThreadingModeLoadIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = 10_000;
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1_000);
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    @DisplayName("Throughput and tail latency of GET /api/employees, platform threads against virtual threads")
+    @Test
+    public void givenThousandClients_whenLoadBothModes_thenReportThroughputAndLatency() throws Exception {
+
+        Result platform = run();
+        Result virtual = run("virtual-threads");
+
+        System.out.printf("%d clients, %ds measured%n", CLIENTS, MEASUREMENT.toSeconds());
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads:  " + virtual);
+
+        Assertions.assertThat(platform.requests()).isPositive();
+        Assertions.assertThat(virtual.requests()).isPositive();
+    }
+
+    private Result run(String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "spring.jpa.show-sql=false")
+                // arguments win over application.properties, default properties would not
+                .run("--spring.datasource.url=" + MY_SQL_CONTAINER.getJdbcUrl(),
+                        "--spring.datasource.username=" + MY_SQL_CONTAINER.getUsername(),
+                        "--spring.datasource.password=" + MY_SQL_CONTAINER.getPassword())) {
+            seed(context.getBean(EmployeeRepository.class), context.getBean(EmployeeService.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+
+            load(client, port, WARMUP);
+            return load(client, port, MEASUREMENT);
+        }
+    }
+
+    private static void seed(EmployeeRepository employeeRepository, EmployeeService employeeService) {
+        employeeRepository.deleteAllInBatch();
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+        employeeService.saveEmployees(employees);
+    }
+
+    private static Result load(HttpClient client, int port, Duration duration) throws InterruptedException {
+        long[][] latencies = new long[CLIENTS][];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientIndex = c;
+            clients.execute(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        // cursor-paged reads always hit the database, the cached id lookup would not
+                        long after = ThreadLocalRandom.current().nextLong(ROWS);
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/employees?limit=20&after=" + after)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                } finally {
+                    latencies[clientIndex] = Arrays.copyOf(samples, count);
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get(), duration);
+    }
+
+    private record Result(long[] sortedLatencies, long errors, Duration duration) {
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms, %d errors",
+                    requests() / (double) duration.toSeconds(),
+                    percentileMillis(50), percentileMillis(99), percentileMillis(99.9), percentileMillis(100),
+                    errors);
+        }
+    }
+}
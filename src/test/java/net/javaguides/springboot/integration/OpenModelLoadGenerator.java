@@ -0,0 +1,175 @@
+package net.javaguides.springboot.integration;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Open-model load generator: requests are started on a fixed schedule no matter how long the previous
+// ones take, and latency is measured from the scheduled start rather than the actual send. A stalled
+// server therefore shows up in the percentiles instead of quietly lowering the request rate
+// (coordinated omission).
+final class OpenModelLoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // one endpoint of the mix, picked with probability weight / sum of weights
+    record Operation(String name, int weight, Supplier<CompletableFuture<? extends HttpResponse<?>>> call) {
+    }
+
+    record EndpointResult(String name, Histogram latencies, long errors) {
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %7d requests, %5d errors, p50 %8.2f ms, p99 %8.2f ms, p99.9 %8.2f ms, max %8.2f ms",
+                    name, latencies.getTotalCount(), errors,
+                    percentileMillis(50), percentileMillis(99), percentileMillis(99.9), latencies.getMaxValue() / 1_000_000.0);
+        }
+    }
+
+    // a started request, recorded exactly once: when its response arrives or, still outstanding at the end, as an error
+    private record Request(long scheduled, Recorder recorder, LongAdder errors, AtomicBoolean recorded) {
+
+        void complete(boolean failed) {
+            if (recorded.compareAndSet(false, true)) {
+                recorder.recordValue(Math.min(System.nanoTime() - scheduled, MAX_LATENCY_NANOS));
+                if (failed) {
+                    errors.increment();
+                }
+            }
+        }
+
+        void abandon() {
+            if (recorded.compareAndSet(false, true)) {
+                recorder.recordValue(MAX_LATENCY_NANOS);
+                errors.increment();
+            }
+        }
+    }
+
+    record Result(Map<String, EndpointResult> endpoints, Duration elapsed) {
+
+        long requests() {
+            return endpoints.values().stream().mapToLong(endpoint -> endpoint.latencies().getTotalCount()).sum();
+        }
+
+        long errors() {
+            return endpoints.values().stream().mapToLong(EndpointResult::errors).sum();
+        }
+
+        double throughput() {
+            return requests() / (elapsed.toNanos() / 1_000_000_000.0);
+        }
+
+        // one HdrHistogram percentile distribution per endpoint (<name>.hgrm, in milliseconds) and a summary
+        void writeReports(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (EndpointResult endpoint : endpoints.values()) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(endpoint.name() + ".hgrm")))) {
+                    endpoint.latencies().outputPercentileDistribution(out, 1_000_000.0);
+                }
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")))) {
+                out.print(this);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder summary = new StringBuilder(String.format("%.1f req/s over %ds, %d requests, %d errors%n",
+                    throughput(), elapsed.toSeconds(), requests(), errors()));
+            endpoints.values().forEach(endpoint -> summary.append(endpoint).append(System.lineSeparator()));
+            return summary.toString();
+        }
+    }
+
+    private final List<Operation> mix;
+
+    private final int totalWeight;
+
+    OpenModelLoadGenerator(List<Operation> mix) {
+        this.mix = mix;
+        this.totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+    }
+
+    Result run(int requestsPerSecond, Duration duration) throws InterruptedException {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        Map<String, LongAdder> errors = new LinkedHashMap<>();
+        for (Operation operation : mix) {
+            recorders.put(operation.name(), new Recorder(MAX_LATENCY_NANOS, 3));
+            errors.put(operation.name(), new LongAdder());
+        }
+
+        long requests = requestsPerSecond * duration.toSeconds();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        CountDownLatch completed = new CountDownLatch((int) requests);
+        Set<Request> outstanding = ConcurrentHashMap.newKeySet();
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick();
+            Request request = new Request(scheduled, recorders.get(operation.name()), errors.get(operation.name()),
+                    new AtomicBoolean());
+            outstanding.add(request);
+            CompletableFuture<? extends HttpResponse<?>> response;
+            try {
+                response = operation.call().get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((result, failure) -> {
+                request.complete(failure != null || result.statusCode() >= 400);
+                outstanding.remove(request);
+                completed.countDown();
+            });
+        }
+        // requests still unanswered after the longest tracked latency count as errors at that latency,
+        // leaving them out would hide exactly the stalls the open model is there to show
+        if (!completed.await(MAX_LATENCY_NANOS, TimeUnit.NANOSECONDS)) {
+            outstanding.forEach(Request::abandon);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) ->
+                endpoints.put(name, new EndpointResult(name, recorder.getIntervalHistogram(), errors.get(name).sum())));
+        return new Result(endpoints, elapsed);
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : mix) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("empty mix");
+    }
+}
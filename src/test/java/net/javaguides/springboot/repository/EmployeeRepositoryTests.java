@@ -1,5 +1,7 @@
 package net.javaguides.springboot.repository;
 
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeView;
 import net.javaguides.springboot.model.Employee;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,7 +9,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -243,4 +249,166 @@ public class EmployeeRepositoryTests {
         // then-verity the result
         Assertions.assertThat(savedEmployee).isNotNull();
     }
+
+    // JUnit test for keyset pagination query
+    @DisplayName("JUnit test for keyset pagination query")
+    @Test
+    public void givenEmployeeList_whenFindByIdGreaterThan_thenReturnNextSlice() {
+        // given-precondition or setup
+        Employee employee1 = employeeRepository.save(Employee.builder()
+                .firstName("Jhon")
+                .lastName("Joe")
+                .email("joe@gmail.com")
+                .build());
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("Ram")
+                .lastName("R")
+                .email("ram@gmail.com")
+                .build());
+        Employee employee3 = employeeRepository.save(Employee.builder()
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build());
+
+        // when-action or behaviour that we are going to test
+        Slice<EmployeeView> firstPage = employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(2));
+        Slice<EmployeeView> secondPage = employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(employee2.getId(), PageRequest.ofSize(2));
+
+        // then-verity the result
+        Assertions.assertThat(firstPage.getContent()).extracting(EmployeeView::id)
+                .containsExactly(employee1.getId(), employee2.getId());
+        Assertions.assertThat(firstPage.hasNext()).isTrue();
+        Assertions.assertThat(secondPage.getContent()).extracting(EmployeeView::id)
+                .containsExactly(employee3.getId());
+        Assertions.assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    // JUnit test for partial update
+    @DisplayName("JUnit test for partial update")
+    @Test
+    public void givenEmployeeObject_whenUpdatePartially_thenUpdateOnlyGivenColumns() {
+        // given-precondition or setup
+        Employee employee = employeeRepository.saveAndFlush(Employee.builder()
+                .firstName("Suresh")
+                .lastName("Ramesh")
+                .email("suresh@gmail.com")
+                .build());
+        long version = employee.getVersion();
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> updated = employeeRepository.updatePartially(employee.getId(), null, null, "suri", null);
+        Optional<Long> missing = employeeRepository.updatePartially(employee.getId() + 1, null, null, "suri", null);
+
+        // then-verity the result
+        Employee updatedEmployee = employeeRepository.findById(employee.getId()).get();
+        Assertions.assertThat(updated).contains(version + 1);
+        Assertions.assertThat(missing).isEmpty();
+        Assertions.assertThat(updatedEmployee.getFirstName()).isEqualTo("Suresh");
+        Assertions.assertThat(updatedEmployee.getLastName()).isEqualTo("suri");
+        Assertions.assertThat(updatedEmployee.getEmail()).isEqualTo("suresh@gmail.com");
+        Assertions.assertThat(updatedEmployee.getVersion()).isEqualTo(version + 1);
+        Assertions.assertThat(employeeRepository.findVersionById(employee.getId())).contains(updatedEmployee.getVersion());
+    }
+
+    // JUnit test for partial update with an expected version
+    @DisplayName("JUnit test for partial update with an expected version")
+    @Test
+    public void givenExpectedVersion_whenUpdatePartially_thenUpdateOnlyThatVersion() {
+        // given-precondition or setup
+        Employee employee = employeeRepository.saveAndFlush(Employee.builder()
+                .firstName("Suresh")
+                .lastName("Ramesh")
+                .email("suresh@gmail.com")
+                .build());
+        long version = employee.getVersion();
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> updated = employeeRepository.updatePartially(employee.getId(), version, "Suri", null, null);
+        Throwable stale = Assertions.catchThrowable(() ->
+                employeeRepository.updatePartially(employee.getId(), version, "Sura", null, null));
+
+        // then-verity the result
+        Assertions.assertThat(updated).contains(version + 1);
+        Assertions.assertThat(stale).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        Assertions.assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo("Suri");
+    }
+
+    // JUnit test for direct and bulk delete queries
+    @DisplayName("JUnit test for direct and bulk delete queries")
+    @Test
+    public void givenEmployeeList_whenDeleteByIdQueries_thenReturnDeletedCount() {
+        // given-precondition or setup
+        Employee employee1 = employeeRepository.save(Employee.builder()
+                .firstName("Jhon")
+                .lastName("Joe")
+                .email("joe@gmail.com")
+                .build());
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("Ram")
+                .lastName("R")
+                .email("ram@gmail.com")
+                .build());
+        Employee employee3 = employeeRepository.saveAndFlush(Employee.builder()
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build());
+
+        // when-action or behaviour that we are going to test
+        int deletedOne = employeeRepository.deleteEmployeeById(employee1.getId());
+        int deletedMissing = employeeRepository.deleteEmployeeById(employee1.getId());
+        List<Long> deletedMany = employeeRepository.deleteEmployeesByIdIn(List.of(employee2.getId(), employee3.getId(), employee1.getId()));
+
+        // then-verity the result
+        Assertions.assertThat(deletedOne).isEqualTo(1);
+        Assertions.assertThat(deletedMissing).isZero();
+        Assertions.assertThat(deletedMany).containsExactlyInAnyOrder(employee2.getId(), employee3.getId());
+        Assertions.assertThat(employeeRepository.count()).isZero();
+    }
+
+    // JUnit test for projection queries
+    @DisplayName("JUnit test for projection queries")
+    @Test
+    public void givenEmployeeObject_whenFindViews_thenReturnEmployeeView() {
+        // given-precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build());
+
+        // when-action or behaviour that we are going to test
+        Optional<EmployeeView> view = employeeRepository.findViewById(employee.getId());
+        Slice<EmployeeView> page = employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(10));
+
+        // then-verity the result
+        Assertions.assertThat(view).contains(EmployeeView.from(employee));
+        Assertions.assertThat(page.getContent()).containsExactly(EmployeeView.from(employee));
+    }
+
+    // JUnit test for batch lookup by name pairs
+    @DisplayName("JUnit test for batch lookup by name pairs")
+    @Test
+    public void givenEmployeesSharingNames_whenFindViewsByNameIn_thenReturnAllMatches() {
+        // given-precondition or setup
+        Employee ramesh = employeeRepository.save(Employee.builder().firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build());
+        Employee namesake = employeeRepository.save(Employee.builder().firstName("Ramesh").lastName("Fadatare").email("rf@gmail.com").build());
+        Employee suresh = employeeRepository.save(Employee.builder().firstName("Suresh").lastName("basya").email("suresh@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Ramesh").lastName("basya").email("rb@gmail.com").build());
+        // more pairs than fit in one statement, so the lookup is split and the last chunk padded
+        List<EmployeeName> names = new ArrayList<>();
+        names.add(new EmployeeName("Ramesh", "Fadatare"));
+        for (int i = 0; i < 600; i++) {
+            names.add(new EmployeeName("Nobody", "Number" + i));
+        }
+        names.add(new EmployeeName("Suresh", "basya"));
+
+        // when-action or behaviour that we are going to test
+        List<EmployeeView> employees = employeeRepository.findViewsByNameIn(names);
+
+        // then-verity the result
+        Assertions.assertThat(employees).containsExactlyInAnyOrder(EmployeeView.from(ramesh), EmployeeView.from(namesake),
+                EmployeeView.from(suresh));
+    }
 }
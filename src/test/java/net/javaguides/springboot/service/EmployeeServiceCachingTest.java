@@ -0,0 +1,228 @@
+package net.javaguides.springboot.service;
+
+import jakarta.persistence.EntityManager;
+import net.javaguides.springboot.dto.EmployeeMultiGetResult;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
+import net.javaguides.springboot.service.support.EmailBloomFilter;
+import net.javaguides.springboot.service.support.EmployeeListSnapshot;
+import net.javaguides.springboot.service.support.EmployeeSearchIndex;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.util.List;
+import java.util.Optional;
+
+@SpringJUnitConfig
+public class EmployeeServiceCachingTest {
+
+    @Configuration
+    @EnableCaching
+    @EnableTransactionManagement
+    @Import(EmployeeServiceImpl.class)
+    static class CachingConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(EmployeeServiceImpl.EMPLOYEE_CACHE);
+        }
+    }
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private EmailBloomFilter emailFilter;
+
+    @MockBean
+    private EmployeeSearchIndex searchIndex;
+
+    @MockBean
+    private EmployeeListSnapshot listSnapshot;
+
+    // the service's transactions show up as calls on it
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    private EmployeeView employeeView;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build();
+        employeeView = EmployeeView.from(employee);
+    }
+
+    // JUnit test for getEmployeeViewById method served from the cache
+    @DisplayName("JUnit test for getEmployeeViewById method served from the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeViewById_thenQueryOnlyOnce() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findViewById(1L)).willReturn(Optional.of(employeeView));
+
+        // when-action or behaviour that we are going to test
+        EmployeeView first = employeeService.getEmployeeViewById(1L).get();
+        EmployeeView second = employeeService.getEmployeeViewById(1L).get();
+
+        // then-verity the result
+        Assertions.assertThat(second).isSameAs(first);
+        Mockito.verify(employeeRepository, Mockito.times(1)).findViewById(1L);
+    }
+
+    // JUnit test for getEmployeeViewById method with unknown id
+    @DisplayName("JUnit test for getEmployeeViewById method does not cache misses")
+    @Test
+    public void givenUnknownId_whenGetEmployeeViewById_thenDoNotCacheEmptyResult() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findViewById(1L)).willReturn(Optional.empty()).willReturn(Optional.of(employeeView));
+
+        // when-action or behaviour that we are going to test
+        Optional<EmployeeView> missing = employeeService.getEmployeeViewById(1L);
+        Optional<EmployeeView> found = employeeService.getEmployeeViewById(1L);
+
+        // then-verity the result
+        Assertions.assertThat(missing).isEmpty();
+        Assertions.assertThat(found).contains(employeeView);
+    }
+
+    // JUnit test for write methods leaving their version in the cache
+    @DisplayName("JUnit test for update and patch caching the new view, delete and bulk delete hiding the old one")
+    @Test
+    public void givenCachedEmployee_whenWrite_thenNextReadSeesWrite() {
+        // given-precondition or setup
+        Employee updated = Employee.builder().id(1L).firstName("Ram").lastName("basya").email("suresh@gmail.com").version(1L).build();
+        BDDMockito.given(employeeRepository.findViewById(1L)).willReturn(Optional.of(employeeView));
+        BDDMockito.given(employeeRepository.saveAndFlush(employee)).willReturn(updated);
+        BDDMockito.given(employeeRepository.updatePartially(1L, null, "Basya", null, null)).willReturn(Optional.of(2L));
+        BDDMockito.given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        BDDMockito.given(employeeRepository.deleteEmployeesByIdIn(List.of(1L))).willReturn(List.of(1L));
+
+        // when-action or behaviour that we are going to test
+        employeeService.getEmployeeViewById(1L);
+        employeeService.updateEmployee(employee);
+        EmployeeView afterUpdate = employeeService.getEmployeeViewById(1L).get();
+        employeeService.patchEmployee(1L, Employee.builder().firstName("Basya").build(), null);
+        EmployeeView afterPatch = employeeService.getEmployeeViewById(1L).get();
+        employeeService.deleteEmployee(1L);
+        employeeService.getEmployeeViewById(1L);
+        employeeService.deleteEmployees(List.of(1L));
+        employeeService.getEmployeeViewById(1L);
+
+        // then-verity the result
+        Assertions.assertThat(afterUpdate).isEqualTo(EmployeeView.from(updated));
+        Assertions.assertThat(afterPatch).isEqualTo(new EmployeeView(1L, "Basya", "basya", "suresh@gmail.com", 2L));
+        // the reads after the deletes are not cached either, the stale view is older than the delete
+        Mockito.verify(employeeRepository, Mockito.times(3)).findViewById(1L);
+    }
+
+    // JUnit test for a read racing a write
+    @DisplayName("JUnit test for a view read before a patch committed not being cached after it")
+    @Test
+    public void givenPatchDuringRead_whenGetEmployeeViewById_thenStaleViewIsNotCached() {
+        // given-precondition or setup
+        EmployeeView patchedView = new EmployeeView(1L, "Basya", "basya", "suresh@gmail.com", 1L);
+        BDDMockito.given(employeeRepository.updatePartially(1L, null, "Basya", null, null)).willReturn(Optional.of(1L));
+        BDDMockito.given(employeeRepository.findViewById(1L))
+                .willAnswer(invocation -> {
+                    // the patch commits after the row was read and before the reader reaches the cache
+                    employeeService.patchEmployee(1L, Employee.builder().firstName("Basya").build(), null);
+                    return Optional.of(employeeView);
+                })
+                .willReturn(Optional.of(patchedView));
+
+        // when-action or behaviour that we are going to test
+        EmployeeView racing = employeeService.getEmployeeViewById(1L).get();
+        EmployeeView next = employeeService.getEmployeeViewById(1L).get();
+        EmployeeView cached = employeeService.getEmployeeViewById(1L).get();
+
+        // then-verity the result
+        Assertions.assertThat(racing).isEqualTo(employeeView);
+        Assertions.assertThat(next).isEqualTo(patchedView);
+        Assertions.assertThat(cached).isSameAs(next);
+        Assertions.assertThat(employeeService.getEmployeeVersion(1L)).contains(1L);
+        Mockito.verify(employeeRepository, Mockito.times(2)).findViewById(1L);
+    }
+
+    // JUnit test for getEmployeeVersion method on a cache hit
+    @DisplayName("JUnit test for getEmployeeVersion method answering from the cache without a transaction")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeVersion_thenNoTransaction() {
+        // given-precondition or setup
+        cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE).put(1L, employeeView);
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> version = employeeService.getEmployeeVersion(1L);
+
+        // then-verity the result
+        Assertions.assertThat(version).contains(employeeView.version());
+        Mockito.verifyNoInteractions(transactionManager, employeeRepository);
+    }
+
+    // JUnit test for getEmployeeViewsByIds method with every id cached
+    @DisplayName("JUnit test for getEmployeeViewsByIds method answering from the cache without a transaction")
+    @Test
+    public void givenAllIdsCached_whenGetEmployeeViewsByIds_thenNoTransaction() {
+        // given-precondition or setup
+        EmployeeView other = new EmployeeView(2L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0L);
+        cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE).put(1L, employeeView);
+        cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE).put(2L, other);
+
+        // when-action or behaviour that we are going to test
+        EmployeeMultiGetResult result = employeeService.getEmployeeViewsByIds(List.of(2L, 1L));
+
+        // then-verity the result
+        Assertions.assertThat(result.employees()).containsExactly(other, employeeView);
+        Assertions.assertThat(result.missing()).isEmpty();
+        Mockito.verifyNoInteractions(transactionManager, employeeRepository);
+    }
+
+    // JUnit test for getEmployeeById method bypassing the cache
+    @DisplayName("JUnit test for getEmployeeById method always loading the entity")
+    @Test
+    public void givenCachedView_whenGetEmployeeById_thenLoadEntityFromRepository() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findViewById(1L)).willReturn(Optional.of(employeeView));
+        BDDMockito.given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when-action or behaviour that we are going to test
+        employeeService.getEmployeeViewById(1L);
+        Optional<Employee> loaded = employeeService.getEmployeeById(1L);
+
+        // then-verity the result
+        Assertions.assertThat(loaded).contains(employee);
+        Mockito.verify(employeeRepository, Mockito.times(1)).findById(1L);
+    }
+}
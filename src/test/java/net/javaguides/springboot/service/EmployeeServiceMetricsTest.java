@@ -0,0 +1,98 @@
+package net.javaguides.springboot.service;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
+import net.javaguides.springboot.service.support.EmailBloomFilter;
+import net.javaguides.springboot.service.support.EmployeeListSnapshot;
+import net.javaguides.springboot.service.support.EmployeeSearchIndex;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+@SpringJUnitConfig
+public class EmployeeServiceMetricsTest {
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import(EmployeeServiceImpl.class)
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TimedAspect timedAspect(MeterRegistry meterRegistry) {
+            return new TimedAspect(meterRegistry);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(EmployeeServiceImpl.EMPLOYEE_CACHE);
+        }
+    }
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private EmailBloomFilter emailFilter;
+
+    @MockBean
+    private EmployeeSearchIndex searchIndex;
+
+    @MockBean
+    private EmployeeListSnapshot listSnapshot;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // JUnit test for the employees.service timer
+    @DisplayName("JUnit test for the per method employees.service timer")
+    @Test
+    public void givenServiceCalls_whenReadTimers_thenOneTimerPerMethod() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(0L));
+        BDDMockito.given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+
+        // when-action or behaviour that we are going to test
+        employeeService.getEmployeeVersion(1L);
+        employeeService.getEmployeeVersion(1L);
+        employeeService.deleteEmployee(1L);
+
+        // then-verity the result
+        Timer versionTimer = meterRegistry.get(EmployeeServiceImpl.SERVICE_TIMER)
+                .tag("class", EmployeeServiceImpl.class.getName())
+                .tag("method", "getEmployeeVersion")
+                .timer();
+        Timer deleteTimer = meterRegistry.get(EmployeeServiceImpl.SERVICE_TIMER)
+                .tag("method", "deleteEmployee")
+                .timer();
+        Assertions.assertThat(versionTimer.count()).isEqualTo(2);
+        Assertions.assertThat(deleteTimer.count()).isEqualTo(1);
+    }
+}
@@ -1,9 +1,19 @@
 package net.javaguides.springboot.service;
 
+import jakarta.persistence.EntityManager;
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.dto.EmployeeMultiGetResult;
+import net.javaguides.springboot.dto.EmployeeName;
+import net.javaguides.springboot.dto.EmployeeSearchResult;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
 import net.javaguides.springboot.exception.ResourceNotException;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
+import net.javaguides.springboot.service.support.EmailBloomFilter;
+import net.javaguides.springboot.service.support.EmployeeListSnapshot;
+import net.javaguides.springboot.service.support.EmployeeSearchIndex;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,11 +23,22 @@ import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +47,24 @@ public class EmployeeServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+
+    @Mock
+    private EmployeeListSnapshot listSnapshot;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -51,10 +90,8 @@ public class EmployeeServiceTest {
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
         // given-precondition or setup
 
-        // Stubbing two methods findById & save of EmployeeServiceImpl class
-        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
-
-        BDDMockito.given(employeeRepository.save(employee)).willReturn(employee);
+        // Stubbing saveAndFlush method of EmployeeRepository
+        BDDMockito.given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         System.out.println(employeeRepository);
         System.out.println(employeeService);
@@ -65,6 +102,43 @@ public class EmployeeServiceTest {
         System.out.println(savedEmployee);
         // then-verity the result
         Assertions.assertThat(savedEmployee).isNotNull();
+        Mockito.verify(employeeRepository, Mockito.never()).findByEmail(Mockito.anyString());
+        Mockito.verify(eventPublisher).publishEvent(EmployeeChangedEvent.created(employee));
+    }
+
+    // JUnit Test for save Employee method when the email filter reports a possible match
+    @DisplayName("JUnit Test for save Employee method with possibly known email")
+    @Test
+    public void givenPossiblyKnownEmail_whenSaveEmployee_thenLookupBeforeInsert() {
+        // given-precondition or setup
+        BDDMockito.given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
+        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
+        BDDMockito.given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        // when-action or behaviour that we are going to test
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+
+        // then-verity the result
+        Assertions.assertThat(savedEmployee).isNotNull();
+        Mockito.verify(employeeRepository).findByEmail(employee.getEmail());
+    }
+
+    // JUnit Test for save Employee method when the email filter reports a match that exists
+    @DisplayName("JUnit Test for save Employee method with known email")
+    @Test
+    public void givenKnownEmail_whenSaveEmployee_thenThrowExceptionWithoutInsert() {
+        // given-precondition or setup
+        BDDMockito.given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
+        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotException.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+
+        // then
+        Mockito.verify(employeeRepository, Mockito.never()).saveAndFlush(Mockito.any(Employee.class));
+        Mockito.verifyNoInteractions(eventPublisher);
     }
 
 
@@ -74,10 +148,8 @@ public class EmployeeServiceTest {
     public void givenExistingEmail_whenSaveEmployee_thenThrowException() {
         // given-precondition or setup
 
-        // Stubbing two methods findById of EmployeeServiceImpl class
-        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
-
-//        BDDMockito.given(employeeRepository.save(employee)).willReturn(employee);
+        // Stubbing saveAndFlush to fail on the unique email index
+        BDDMockito.given(employeeRepository.saveAndFlush(employee)).willThrow(duplicateEmailViolation());
 
         System.out.println(employeeRepository);
         System.out.println(employeeService);
@@ -87,10 +159,102 @@ public class EmployeeServiceTest {
             employeeService.saveEmployee(employee);
         });
 
+        // then
+        Mockito.verify(employeeRepository, Mockito.never()).findByEmail(Mockito.anyString());
+    }
+
+    // JUnit Test for save Employee method, which rethrows other integrity violations
+    @DisplayName("JUnit Test for save Employee method with other integrity violation")
+    @Test
+    public void givenOtherIntegrityViolation_whenSaveEmployee_thenRethrowIt() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("first_name cannot be null"));
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+    }
+
+    // JUnit Test for saveEmployees method
+    @DisplayName("JUnit Test for saveEmployees method")
+    @Test
+    public void givenListOfNewEmployees_whenSaveEmployees_thenSaveAll() {
+        // given-precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("John")
+                .lastName("cena")
+                .email("john@gmail.com")
+                .build();
+
+        // when-action or behaviour that we are going to test
+        List<Employee> savedEmployees = employeeService.saveEmployees(List.of(employee, employee1));
+
+        // then-verity the result
+        Assertions.assertThat(savedEmployees).containsExactly(employee, employee1);
+        Mockito.verify(employeeRepository).save(employee);
+        Mockito.verify(employeeRepository).save(employee1);
+        Mockito.verify(employeeRepository).flush();
+        Mockito.verify(employeeRepository, Mockito.never()).findByEmailIn(Mockito.anyCollection());
+    }
+
+    // JUnit Test for saveEmployees method when the email filter reports possible matches
+    @DisplayName("JUnit Test for saveEmployees method with possibly known emails")
+    @Test
+    public void givenPossiblyKnownEmail_whenSaveEmployees_thenLookupOnlyThatEmail() {
+        // given-precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("John")
+                .lastName("cena")
+                .email("john@gmail.com")
+                .build();
+        BDDMockito.given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
+        BDDMockito.given(employeeRepository.findByEmailIn(List.of(employee.getEmail()))).willReturn(List.of(employee));
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotException.class, () -> {
+            employeeService.saveEmployees(List.of(employee, employee1));
+        });
+
         // then
         Mockito.verify(employeeRepository, Mockito.never()).save(Mockito.any(Employee.class));
     }
 
+    // JUnit Test for saveEmployees method, which throws exception
+    @DisplayName("JUnit Test for saveEmployees method with existing email")
+    @Test
+    public void givenExistingEmail_whenSaveEmployees_thenThrowException() {
+        // given-precondition or setup
+        // stubbing
+        BDDMockito.willThrow(duplicateEmailViolation()).given(employeeRepository).flush();
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotException.class, () -> {
+            employeeService.saveEmployees(List.of(employee));
+        });
+    }
+
+    // JUnit Test for saveEmployees method, which throws exception
+    @DisplayName("JUnit Test for saveEmployees method with repeated email")
+    @Test
+    public void givenRepeatedEmail_whenSaveEmployees_thenThrowException() {
+        // given-precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("John")
+                .lastName("cena")
+                .email(employee.getEmail())
+                .build();
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotException.class, () -> {
+            employeeService.saveEmployees(List.of(employee, employee1));
+        });
+
+        // then
+        Mockito.verifyNoInteractions(employeeRepository);
+    }
+
     // JUnit test for getAllEmployees method
     @DisplayName("JUnit test for getAllEmployees method +ve scenario")
     @Test
@@ -135,6 +299,48 @@ public class EmployeeServiceTest {
         Assertions.assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    // JUnit test for getEmployees method
+    @DisplayName("JUnit test for getEmployees method caps the page size")
+    @Test
+    public void givenLimitAboveMaximum_whenGetEmployees_thenQueryWithMaxPageSize() {
+        // given-precondition or setup
+        PageRequest maxPage = PageRequest.ofSize(EmployeeService.MAX_PAGE_SIZE);
+        // stubbing
+        BDDMockito.given(employeeRepository.findViewsByIdGreaterThanOrderByIdAsc(1L, maxPage))
+                .willReturn(new SliceImpl<>(List.of(EmployeeView.from(employee)), maxPage, false));
+
+        // when-action or behaviour that we are going to test
+        Slice<EmployeeView> page = employeeService.getEmployees(1L, 10_000);
+
+        // then-verity the result
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.hasNext()).isFalse();
+    }
+
+    // JUnit test for exportEmployees method
+    @DisplayName("JUnit test for exportEmployees method")
+    @Test
+    public void givenStreamOfEmployees_whenExportEmployees_thenConsumeAndDetachEachEmployee() {
+        // given-precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("John")
+                .lastName("cena")
+                .email("john@gmail.com")
+                .build();
+        // stubbing
+        BDDMockito.given(employeeRepository.streamAll()).willReturn(Stream.of(employee, employee1));
+
+        // when-action or behaviour that we are going to test
+        List<Employee> exported = new ArrayList<>();
+        employeeService.exportEmployees(exported::add);
+
+        // then-verity the result
+        Assertions.assertThat(exported).containsExactly(employee, employee1);
+        Mockito.verify(entityManager).detach(employee);
+        Mockito.verify(entityManager).detach(employee1);
+    }
+
     // JUnit test for getEmployeeById method
     @DisplayName("JUnit test for getEmployeeById method")
     @Test
@@ -149,12 +355,107 @@ public class EmployeeServiceTest {
         Assertions.assertThat(savedEmployee).isNotNull();
     }
 
+    // JUnit test for getEmployeeViewById method
+    @DisplayName("JUnit test for getEmployeeViewById method")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeViewById_thenReturnProjection() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findViewById(1L)).willReturn(Optional.of(EmployeeView.from(employee)));
+
+        // when-action or behaviour that we are going to test
+        EmployeeView view = employeeService.getEmployeeViewById(1L).get();
+
+        // then-verity the result
+        Assertions.assertThat(view.email()).isEqualTo(employee.getEmail());
+        Mockito.verify(employeeRepository, Mockito.never()).findById(1L);
+    }
+
+    // JUnit test for getEmployeeViewsByIds method
+    @DisplayName("JUnit test for getEmployeeViewsByIds method querying only the cache misses")
+    @Test
+    public void givenSomeCachedIds_whenGetEmployeeViewsByIds_thenQueryMissesAndKeepRequestOrder() {
+        // given-precondition or setup
+        ConcurrentMapCache employeeCache = new ConcurrentMapCache(EmployeeServiceImpl.EMPLOYEE_CACHE);
+        EmployeeView cached = new EmployeeView(2L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0);
+        EmployeeView loaded = new EmployeeView(3L, "John", "Cena", "cena@gmail.com", 0);
+        employeeCache.put(2L, cached);
+        BDDMockito.given(cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE)).willReturn(employeeCache);
+        BDDMockito.given(employeeRepository.findViewsByIdIn(List.of(3L, 9L, 1L)))
+                .willReturn(List.of(EmployeeView.from(employee), loaded));
+
+        // when-action or behaviour that we are going to test
+        EmployeeMultiGetResult result = employeeService.getEmployeeViewsByIds(List.of(3L, 2L, 9L, 3L, 1L));
+
+        // then-verity the result
+        Assertions.assertThat(result.employees()).containsExactly(loaded, cached, EmployeeView.from(employee));
+        Assertions.assertThat(result.missing()).containsExactly(9L);
+        Assertions.assertThat(employeeCache.get(3L, EmployeeView.class)).isEqualTo(loaded);
+    }
+
+    // JUnit test for lookupEmployees method
+    @DisplayName("JUnit test for lookupEmployees method grouping the matches per name")
+    @Test
+    public void givenNamePairs_whenLookupEmployees_thenReturnMatchesPerName() {
+        // given-precondition or setup
+        List<EmployeeName> names = List.of(new EmployeeName("ramesh", "fadatare"), new EmployeeName("John", "Cena"),
+                new EmployeeName("ramesh", "fadatare"), new EmployeeName("Suresh", "basya"));
+        EmployeeView namesake = new EmployeeView(7L, "Ramesh", "Fadatare", "rf@gmail.com", 0);
+        EmployeeView ramesh = new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0);
+        EmployeeView suresh = new EmployeeView(2L, "Suresh", "basya", "suresh@gmail.com", 0);
+        // a case insensitive collation also returns rows spelled differently from the request
+        BDDMockito.given(employeeRepository.findViewsByNameIn(names)).willReturn(List.of(namesake, suresh, ramesh));
+
+        // when-action or behaviour that we are going to test
+        List<EmployeeLookupResult> results = employeeService.lookupEmployees(names);
+
+        // then-verity the result
+        Assertions.assertThat(results).containsExactly(
+                new EmployeeLookupResult("ramesh", "fadatare", List.of(ramesh, namesake)),
+                new EmployeeLookupResult("John", "Cena", List.of()),
+                new EmployeeLookupResult("Suresh", "basya", List.of(suresh)));
+    }
+
+    // JUnit test for getEmployeeVersion method on a cache miss
+    @DisplayName("JUnit test for getEmployeeVersion method reading only the version column")
+    @Test
+    public void givenUncachedEmployee_whenGetEmployeeVersion_thenQueryVersionOnly() {
+        // given-precondition or setup
+        BDDMockito.given(cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE))
+                .willReturn(new ConcurrentMapCache(EmployeeServiceImpl.EMPLOYEE_CACHE));
+        BDDMockito.given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(2L));
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> version = employeeService.getEmployeeVersion(1L);
+
+        // then-verity the result
+        Assertions.assertThat(version).contains(2L);
+        Mockito.verify(employeeRepository, Mockito.never()).findViewById(1L);
+    }
+
+    // JUnit test for getEmployeeVersion method on a cache hit
+    @DisplayName("JUnit test for getEmployeeVersion method served from the cached view")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeVersion_thenDoNotQuery() {
+        // given-precondition or setup
+        ConcurrentMapCache employeeCache = new ConcurrentMapCache(EmployeeServiceImpl.EMPLOYEE_CACHE);
+        employee.setVersion(5L);
+        employeeCache.put(1L, EmployeeView.from(employee));
+        BDDMockito.given(cacheManager.getCache(EmployeeServiceImpl.EMPLOYEE_CACHE)).willReturn(employeeCache);
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> version = employeeService.getEmployeeVersion(1L);
+
+        // then-verity the result
+        Assertions.assertThat(version).contains(5L);
+        Mockito.verifyNoInteractions(employeeRepository);
+    }
+
     // JUnit test for update employee method
     @DisplayName("JUnit test for update employee method")
     @Test
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() {
         // given-precondition or setup
-        BDDMockito.given(employeeRepository.save(employee)).willReturn(employee);
+        BDDMockito.given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
         employee.setFirstName("Basya");
         employee.setEmail("basya@gmail.com");
 
@@ -167,18 +468,92 @@ public class EmployeeServiceTest {
 
     }
 
+    // JUnit test for patchEmployee method
+    @DisplayName("JUnit test for patchEmployee method")
+    @Test
+    public void givenChangedFields_whenPatchEmployee_thenReturnNewVersion() {
+        // given-precondition or setup
+        Employee changes = Employee.builder().email("basya@gmail.com").build();
+        BDDMockito.given(employeeRepository.updatePartially(1L, null, null, null, "basya@gmail.com"))
+                .willReturn(Optional.of(4L));
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> version = employeeService.patchEmployee(1L, changes, null);
+
+        // then-verity the result
+        Assertions.assertThat(version).contains(4L);
+        Mockito.verify(employeeRepository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    // JUnit test for patchEmployee method with unknown id
+    @DisplayName("JUnit test for patchEmployee method with unknown id")
+    @Test
+    public void givenUnknownId_whenPatchEmployee_thenReturnEmpty() {
+        // given-precondition or setup
+        Employee changes = Employee.builder().firstName("Basya").build();
+        BDDMockito.given(employeeRepository.updatePartially(1L, 3L, "Basya", null, null)).willReturn(Optional.empty());
+
+        // when-action or behaviour that we are going to test
+        Optional<Long> version = employeeService.patchEmployee(1L, changes, 3L);
+
+        // then-verity the result
+        Assertions.assertThat(version).isEmpty();
+    }
+
+    // JUnit test for searchEmployees method with an out of range page
+    @DisplayName("JUnit test for searchEmployees method capping offset and limit")
+    @Test
+    public void givenOutOfRangePage_whenSearchEmployees_thenCapOffsetAndLimit() {
+        // given-precondition or setup
+        EmployeeSearchResult result = new EmployeeSearchResult(List.of(EmployeeView.from(employee)), 1);
+        BDDMockito.given(searchIndex.search("ramesh", EmployeeService.MAX_SEARCH_OFFSET, EmployeeService.MAX_PAGE_SIZE))
+                .willReturn(Optional.of(result));
+
+        // when-action or behaviour that we are going to test
+        Optional<EmployeeSearchResult> searchResult = employeeService.searchEmployees("ramesh", 1_000_000, 1_000_000);
+
+        // then-verity the result
+        Assertions.assertThat(searchResult).contains(result);
+    }
+
     // JUnit test for deleteEmployee method
     @DisplayName("JUnit test for deleteEmployee method")
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenDeleteEmployee() {
         // given-precondition or setup
-        // stubbing for method type void
-        BDDMockito.willDoNothing().given(employeeRepository).deleteById(1L);
+        BDDMockito.given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+
+        // when-action or behaviour that we are going to test
+        boolean deleted = employeeService.deleteEmployee(1L);
+
+        // then-verity the result
+        Assertions.assertThat(deleted).isTrue();
+        Mockito.verify(employeeRepository,Mockito.times(1)).deleteEmployeeById(1L);
+        Mockito.verify(employeeRepository, Mockito.never()).findById(1L);
+    }
+
+    // JUnit test for deleteEmployees method
+    @DisplayName("JUnit test for deleteEmployees method")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenPublishOnlyDeletedIds() {
+        // given-precondition or setup
+        List<Long> ids = List.of(1L, 2L, 3L);
+        BDDMockito.given(employeeRepository.deleteEmployeesByIdIn(ids)).willReturn(List.of(1L, 3L));
 
         // when-action or behaviour that we are going to test
-        employeeService.deleteEmployee(1L);
+        int deleted = employeeService.deleteEmployees(ids);
 
         // then-verity the result
-        Mockito.verify(employeeRepository,Mockito.times(1)).deleteById(1L);
+        Assertions.assertThat(deleted).isEqualTo(2);
+        Mockito.verify(employeeRepository, Mockito.times(1)).deleteEmployeesByIdIn(ids);
+        Mockito.verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(1L));
+        Mockito.verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(3L));
+        Mockito.verify(eventPublisher, Mockito.never()).publishEvent(EmployeeChangedEvent.deleted(2L));
+    }
+
+    private static DataIntegrityViolationException duplicateEmailViolation() {
+        SQLException cause = new SQLException("Duplicate entry 'suresh@gmail.com' for key 'employees.uk_employees_email'");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", cause, "employees." + Employee.UNIQUE_EMAIL_CONSTRAINT));
     }
 }
@@ -0,0 +1,163 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.exception.ResourceNotException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.ReactiveEmployeeRepository;
+import net.javaguides.springboot.service.impl.ReactiveEmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmployeeServiceTest {
+
+    @Mock
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @InjectMocks
+    private ReactiveEmployeeServiceImpl employeeService;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build();
+    }
+
+    // JUnit test for saveEmployee method
+    @DisplayName("JUnit test for reactive saveEmployee method")
+    @Test
+    public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Mono.empty());
+        BDDMockito.given(employeeRepository.insert(employee)).willReturn(Mono.just(employee));
+
+        // when-action or behaviour that we are going to test
+        Mono<Employee> savedEmployee = employeeService.saveEmployee(employee);
+
+        // then-verity the result
+        StepVerifier.create(savedEmployee)
+                .expectNext(employee)
+                .verifyComplete();
+    }
+
+    // JUnit test for saveEmployee method which throws exception
+    @DisplayName("JUnit test for reactive saveEmployee method which throws exception")
+    @Test
+    public void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Mono.just(employee));
+
+        // when-action or behaviour that we are going to test
+        Mono<Employee> savedEmployee = employeeService.saveEmployee(employee);
+
+        // then-verity the result
+        StepVerifier.create(savedEmployee)
+                .expectError(ResourceNotException.class)
+                .verify();
+        Mockito.verify(employeeRepository, Mockito.never()).insert(ArgumentMatchers.any(Employee.class));
+    }
+
+    // JUnit test for saveEmployee method losing the race to a concurrent create
+    @DisplayName("JUnit test for reactive saveEmployee method rejected by the unique email index")
+    @Test
+    public void givenConcurrentDuplicateEmail_whenSaveEmployee_thenThrowsException() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Mono.empty());
+        BDDMockito.given(employeeRepository.insert(employee)).willReturn(Mono.error(new DuplicateKeyException(
+                "Duplicate entry 'suresh@gmail.com' for key 'employees.uk_employees_email'")));
+
+        // when-action or behaviour that we are going to test
+        Mono<Employee> savedEmployee = employeeService.saveEmployee(employee);
+
+        // then-verity the result
+        StepVerifier.create(savedEmployee)
+                .expectError(ResourceNotException.class)
+                .verify();
+    }
+
+    // JUnit test for saveEmployees method with a repeated email
+    @DisplayName("JUnit test for reactive saveEmployees method with a repeated email")
+    @Test
+    public void givenRepeatedEmail_whenSaveEmployees_thenThrowsException() {
+        // given-precondition or setup
+        Employee employee1 = Employee.builder().firstName("Tony").lastName("Stark").email(employee.getEmail()).build();
+
+        // when-action or behaviour that we are going to test
+        Flux<Employee> savedEmployees = employeeService.saveEmployees(List.of(employee, employee1));
+
+        // then-verity the result
+        StepVerifier.create(savedEmployees)
+                .expectError(ResourceNotException.class)
+                .verify();
+        Mockito.verifyNoInteractions(employeeRepository);
+    }
+
+    // JUnit test for saveEmployees method
+    @DisplayName("JUnit test for reactive saveEmployees method")
+    @Test
+    public void givenListOfEmployees_whenSaveEmployees_thenInsertAllInOneCall() {
+        // given-precondition or setup
+        Employee employee1 = Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        List<Employee> employees = List.of(employee, employee1);
+        BDDMockito.given(employeeRepository.findByEmailIn(ArgumentMatchers.anyCollection())).willReturn(Flux.empty());
+        BDDMockito.given(employeeRepository.insertAll(employees)).willReturn(Flux.fromIterable(employees));
+
+        // when-action or behaviour that we are going to test
+        Flux<Employee> savedEmployees = employeeService.saveEmployees(employees);
+
+        // then-verity the result
+        StepVerifier.create(savedEmployees)
+                .expectNext(employee, employee1)
+                .verifyComplete();
+    }
+
+    // JUnit test for updateEmployee method with an unknown id
+    @DisplayName("JUnit test for reactive updateEmployee method with an unknown id")
+    @Test
+    public void givenUnknownId_whenUpdateEmployee_thenReturnEmpty() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.update(2L, employee.getFirstName(), employee.getLastName(), employee.getEmail()))
+                .willReturn(Mono.just(0L));
+
+        // when-action or behaviour that we are going to test
+        Mono<Employee> updatedEmployee = employeeService.updateEmployee(2L, employee);
+
+        // then-verity the result
+        StepVerifier.create(updatedEmployee)
+                .verifyComplete();
+        Mockito.verify(employeeRepository, Mockito.never()).findById(2L);
+    }
+
+    // JUnit test for deleteEmployees method with no ids
+    @DisplayName("JUnit test for reactive deleteEmployees method with no ids")
+    @Test
+    public void givenNoIds_whenDeleteEmployees_thenDoNotQuery() {
+        // when-action or behaviour that we are going to test
+        Mono<Long> deleted = employeeService.deleteEmployees(List.of());
+
+        // then-verity the result
+        StepVerifier.create(deleted)
+                .expectNext(0L)
+                .verifyComplete();
+        Mockito.verifyNoInteractions(employeeRepository);
+    }
+}
@@ -0,0 +1,99 @@
+package net.javaguides.springboot.service.support;
+
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailBloomFilterTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailBloomFilter emailFilter;
+
+    @BeforeEach
+    public void setup() {
+        emailFilter = new EmailBloomFilter(employeeRepository, transactionManager, 1000, 0.01);
+    }
+
+    // JUnit test for mightContain before the filter is loaded
+    @DisplayName("JUnit test for mightContain before the filter is loaded")
+    @Test
+    public void givenFilterNotLoaded_whenMightContain_thenReturnTrue() {
+        // when-action or behaviour that we are going to test
+        boolean mightContain = emailFilter.mightContain("suresh@gmail.com");
+
+        // then-verity the result
+        Assertions.assertThat(mightContain).isTrue();
+    }
+
+    // JUnit test for mightContain after loading the stored emails
+    @DisplayName("JUnit test for mightContain after loading the stored emails")
+    @Test
+    public void givenLoadedFilter_whenMightContain_thenKnowStoredEmails() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.streamAllEmails()).willReturn(Stream.of("suresh@gmail.com", "john@gmail.com"));
+
+        // when-action or behaviour that we are going to test
+        emailFilter.load();
+
+        // then-verity the result
+        Assertions.assertThat(emailFilter.mightContain("suresh@gmail.com")).isTrue();
+        Assertions.assertThat(emailFilter.mightContain("SURESH@gmail.com")).isTrue();
+        Assertions.assertThat(emailFilter.mightContain("john@gmail.com")).isTrue();
+        Assertions.assertThat(emailFilter.mightContain("undertaker@gmail.com")).isFalse();
+    }
+
+    // JUnit test for a failed load
+    @DisplayName("JUnit test for a failed load keeping the filter pessimistic")
+    @Test
+    public void givenFailingLoad_whenMightContain_thenReturnTrue() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.streamAllEmails())
+                .willThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // when-action or behaviour that we are going to test
+        emailFilter.load();
+
+        // then-verity the result
+        Assertions.assertThat(emailFilter.mightContain("undertaker@gmail.com")).isTrue();
+    }
+
+    // JUnit test for the filter following employee changes
+    @DisplayName("JUnit test for the filter following employee changes")
+    @Test
+    public void givenCreatedEmployee_whenOnEmployeeChanged_thenEmailIsKnown() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.streamAllEmails()).willReturn(Stream.empty());
+        emailFilter.load();
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Suresh")
+                .lastName("basya")
+                .email("suresh@gmail.com")
+                .build();
+
+        // when-action or behaviour that we are going to test
+        emailFilter.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        emailFilter.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+
+        // then-verity the result
+        Assertions.assertThat(emailFilter.mightContain("suresh@gmail.com")).isTrue();
+    }
+}
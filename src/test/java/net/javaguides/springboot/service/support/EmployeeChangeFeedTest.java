@@ -0,0 +1,199 @@
+package net.javaguides.springboot.service.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.controller.EmployeeController;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// the feed behind the real controller, reading the event stream while the request is still open
+public class EmployeeChangeFeedTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmployeeChangeFeed changeFeed;
+
+    private MockMvc mockMvc;
+
+    @AfterEach
+    public void tearDown() {
+        changeFeed.destroy();
+    }
+
+    // JUnit test for committed changes pushed to a connected client
+    @DisplayName("JUnit test for committed changes pushed to a connected client")
+    @Test
+    public void givenSubscriber_whenEmployeeChanged_thenSendChangeEvents() throws Exception {
+        // given-precondition or setup
+        setup(100, 100, Executors.newCachedThreadPool());
+        MockHttpServletResponse response = streamChanges(null);
+
+        // when-action or behaviour that we are going to test
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.created(ramesh()));
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // then-verity the result
+        Awaitility.await().atMost(Duration.ofSeconds(5))
+                .until(() -> response.getContentAsString().contains("\"sequence\":2"));
+        Assertions.assertThat(response.getContentAsString())
+                .contains("event:employee-changed")
+                .contains("data:{\"sequence\":1,\"type\":\"CREATED\",\"id\":1,\"firstName\":\"Ramesh\",\"lastName\":\"Fadatare\",\"email\":\"ramesh@gmail.com\"}")
+                .contains("data:{\"sequence\":2,\"type\":\"DELETED\",\"id\":1}");
+    }
+
+    // JUnit test for a reconnecting client replayed the changes it missed
+    @DisplayName("JUnit test for a reconnecting client replayed the changes it missed")
+    @Test
+    public void givenLastEventId_whenReconnect_thenReplayMissedChanges() throws Exception {
+        // given-precondition or setup
+        setup(100, 100, Executors.newCachedThreadPool());
+        MockHttpServletResponse first = streamChanges(null);
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.created(ramesh()));
+        Awaitility.await().atMost(Duration.ofSeconds(5))
+                .until(() -> first.getContentAsString().contains("\"sequence\":1"));
+        String lastEventId = first.getContentAsString().lines()
+                .filter(line -> line.startsWith("id:"))
+                .findFirst().orElseThrow()
+                .substring("id:".length());
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+
+        // when-action or behaviour that we are going to test
+        MockHttpServletResponse response = streamChanges(lastEventId);
+
+        // then-verity the result
+        Awaitility.await().atMost(Duration.ofSeconds(5))
+                .until(() -> response.getContentAsString().contains("\"sequence\":3"));
+        Assertions.assertThat(response.getContentAsString())
+                .doesNotContain("\"sequence\":1")
+                .contains("\"sequence\":2")
+                .doesNotContain("event:reset");
+    }
+
+    // JUnit test for a reconnecting client whose changes are no longer replayable
+    @DisplayName("JUnit test for a reconnecting client whose changes are no longer replayable")
+    @Test
+    public void givenUnknownOrEvictedLastEventId_whenReconnect_thenSendReset() throws Exception {
+        // given-precondition or setup
+        setup(2, 100, Executors.newCachedThreadPool());
+        MockHttpServletResponse first = streamChanges(null);
+        // only 3 and 4 are kept, after 1 the client would miss 2
+        for (long id = 1; id <= 4; id++) {
+            changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(id));
+        }
+        Awaitility.await().atMost(Duration.ofSeconds(5))
+                .until(() -> first.getContentAsString().contains("\"sequence\":4"));
+        String evictedEventId = first.getContentAsString().lines()
+                .filter(line -> line.startsWith("id:"))
+                .findFirst().orElseThrow()
+                .substring("id:".length());
+
+        // when-action or behaviour that we are going to test
+        MockHttpServletResponse evicted = streamChanges(evictedEventId);
+        MockHttpServletResponse unknown = streamChanges("earlier-run-7");
+
+        // then-verity the result
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{evicted, unknown}) {
+            Awaitility.await().atMost(Duration.ofSeconds(5))
+                    .until(() -> response.getContentAsString().contains("event:reset"));
+            Assertions.assertThat(response.getContentAsString()).doesNotContain("\"sequence\"");
+        }
+    }
+
+    // JUnit test for disconnecting a client that does not keep up
+    @DisplayName("JUnit test for disconnecting a client that does not keep up")
+    @Test
+    public void givenStalledSubscriber_whenQueueOverflows_thenDisconnect() throws Exception {
+        // given-precondition or setup
+        // senders that never run, as if the connection were stuck
+        ExecutorService stalled = Mockito.mock(ExecutorService.class);
+        setup(100, 2, stalled);
+        streamChanges(null);
+        Assertions.assertThat(changeFeed.subscriberCount()).isEqualTo(1);
+
+        // when-action or behaviour that we are going to test
+        for (long id = 1; id <= 3; id++) {
+            changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(id));
+        }
+
+        // then-verity the result
+        Assertions.assertThat(changeFeed.subscriberCount()).isZero();
+        // the pending drain and the completion of the emitter
+        Mockito.verify(stalled, Mockito.times(2)).execute(ArgumentMatchers.any());
+    }
+
+    // JUnit test for the subscriber limit under concurrent subscribes
+    @DisplayName("JUnit test for the subscriber limit under concurrent subscribes")
+    @Test
+    public void givenConcurrentSubscribes_whenLimitReached_thenRegisterOnlyMaxSubscribers() throws Exception {
+        // given-precondition or setup
+        setup(100, 100, Executors.newCachedThreadPool());
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<SseEmitter>>> subscriptions = new ArrayList<>();
+
+        // when-action or behaviour that we are going to test
+        for (int i = 0; i < 32; i++) {
+            subscriptions.add(clients.submit(() -> {
+                start.await();
+                return changeFeed.subscribe(null);
+            }));
+        }
+        start.countDown();
+        int subscribed = 0;
+        for (Future<Optional<SseEmitter>> subscription : subscriptions) {
+            subscribed += subscription.get(5, TimeUnit.SECONDS).isPresent() ? 1 : 0;
+        }
+        clients.shutdown();
+
+        // then-verity the result
+        Assertions.assertThat(subscribed).isEqualTo(10);
+        Assertions.assertThat(changeFeed.subscriberCount()).isEqualTo(10);
+    }
+
+    private void setup(int replayCapacity, int queueCapacity, ExecutorService senders) {
+        changeFeed = new EmployeeChangeFeed(objectMapper, replayCapacity, queueCapacity, 10,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), senders);
+        EmployeeController controller = new EmployeeController(Mockito.mock(EmployeeService.class), objectMapper,
+                new StaticListableBeanFactory().getBeanProvider(EmployeeWriteBehind.class), changeFeed);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private MockHttpServletResponse streamChanges(String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/api/employees/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private static Employee ramesh() {
+        return Employee.builder().id(1L).firstName("Ramesh").lastName("Fadatare").email("ramesh@gmail.com").build();
+    }
+}
@@ -0,0 +1,112 @@
+package net.javaguides.springboot.service.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeSnapshot;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeListSnapshotTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmployeeListSnapshot listSnapshot;
+
+    private final EmployeeView ramesh = new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0);
+
+    private final EmployeeView suresh = new EmployeeView(2L, "Suresh", "basya", "suresh@gmail.com", 0);
+
+    @BeforeEach
+    public void setup() {
+        listSnapshot = new EmployeeListSnapshot(employeeRepository, transactionManager, objectMapper, Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listSnapshot.destroy();
+    }
+
+    // JUnit test for the snapshot before it is built
+    @DisplayName("JUnit test for the snapshot before it is built")
+    @Test
+    public void givenNoBuild_whenGet_thenReturnEmpty() {
+        // when-action or behaviour that we are going to test
+        // then-verity the result
+        Assertions.assertThat(listSnapshot.get()).isEmpty();
+    }
+
+    // JUnit test for building the gzipped JSON of all employees
+    @DisplayName("JUnit test for building the gzipped JSON of all employees")
+    @Test
+    public void givenEmployees_whenLoad_thenSnapshotHoldsGzippedJsonArray() throws IOException {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.streamAllViews()).willAnswer(invocation -> Stream.of(ramesh, suresh));
+
+        // when-action or behaviour that we are going to test
+        listSnapshot.load();
+        EmployeeSnapshot first = listSnapshot.get().orElseThrow();
+        listSnapshot.rebuild();
+        EmployeeSnapshot second = listSnapshot.get().orElseThrow();
+
+        // then-verity the result
+        Assertions.assertThat(gunzip(first.gzippedJson())).isEqualTo(objectMapper.writeValueAsString(new EmployeeView[]{ramesh, suresh}));
+        Assertions.assertThat(first.size()).isEqualTo(2);
+        // same content, same ETag, newer version
+        Assertions.assertThat(second.eTag()).isEqualTo(first.eTag());
+        Assertions.assertThat(second.version()).isGreaterThan(first.version());
+    }
+
+    // JUnit test for one debounced rebuild after a burst of writes
+    @DisplayName("JUnit test for one debounced rebuild after a burst of writes")
+    @Test
+    public void givenBurstOfChanges_whenDebounceHasPassed_thenRebuildOnce() {
+        // given-precondition or setup
+        BDDMockito.given(employeeRepository.streamAllViews())
+                .willReturn(Stream.of(ramesh))
+                .willReturn(Stream.of(ramesh, suresh));
+        listSnapshot.load();
+        String eTag = listSnapshot.get().orElseThrow().eTag();
+
+        // when-action or behaviour that we are going to test
+        for (int i = 0; i < 10; i++) {
+            listSnapshot.onEmployeeChanged(EmployeeChangedEvent.deleted(i));
+        }
+
+        // then-verity the result
+        Awaitility.await().atMost(Duration.ofSeconds(5))
+                .until(() -> listSnapshot.get().orElseThrow().size() == 2);
+        Assertions.assertThat(listSnapshot.get().orElseThrow().eTag()).isNotEqualTo(eTag);
+        Mockito.verify(employeeRepository, Mockito.times(2)).streamAllViews();
+    }
+
+    private static String gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package net.javaguides.springboot.service.support;
+
+import net.javaguides.springboot.dto.EmployeeSearchResult;
+import net.javaguides.springboot.dto.EmployeeView;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new EmployeeSearchIndex(employeeRepository, transactionManager);
+    }
+
+    // JUnit test for search before the index is loaded
+    @DisplayName("JUnit test for search before the index is loaded")
+    @Test
+    public void givenIndexNotLoaded_whenSearch_thenReturnEmpty() {
+        // when-action or behaviour that we are going to test
+        Optional<EmployeeSearchResult> result = searchIndex.search("ramesh", 0, 10);
+
+        // then-verity the result
+        Assertions.assertThat(result).isEmpty();
+    }
+
+    // JUnit test for search ranking exact, prefix and email matches
+    @DisplayName("JUnit test for search ranking exact, prefix and email matches")
+    @Test
+    public void givenLoadedIndex_whenSearch_thenRankBestMatchFirst() {
+        // given-precondition or setup
+        load(new EmployeeView(1L, "Suresh", "basya", "suresh.ramesh@yahoo.com", 0),
+                new EmployeeView(2L, "Rameshwar", "Kumar", "rk@gmail.com", 0),
+                new EmployeeView(3L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0),
+                new EmployeeView(4L, "John", "Cena", "cena@gmail.com", 0));
+
+        // when-action or behaviour that we are going to test
+        EmployeeSearchResult result = searchIndex.search("Ramesh", 0, 10).orElseThrow();
+
+        // then-verity the result
+        Assertions.assertThat(result.employees()).extracting(EmployeeView::id).containsExactly(3L, 2L, 1L);
+        Assertions.assertThat(result.total()).isEqualTo(3);
+    }
+
+    // JUnit test for search with substrings, short prefixes, accents and several tokens
+    @DisplayName("JUnit test for search with substrings, short prefixes, accents and several tokens")
+    @Test
+    public void givenLoadedIndex_whenSearchPartialTokens_thenMatchAllOfThem() {
+        // given-precondition or setup
+        load(new EmployeeView(1L, "José", "Fadatare", "jose@gmail.com", 0),
+                new EmployeeView(2L, "Rameshwar", "Kumar", "rk@gmail.com", 0),
+                new EmployeeView(3L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0));
+
+        // when-action or behaviour that we are going to test
+        // then-verity the result
+        Assertions.assertThat(ids("datar")).containsExactly(1L, 3L);
+        Assertions.assertThat(ids("fa")).containsExactly(1L, 3L);
+        Assertions.assertThat(ids("at")).isEmpty();
+        Assertions.assertThat(ids("jose")).containsExactly(1L);
+        Assertions.assertThat(ids("rame fada")).containsExactly(3L);
+        Assertions.assertThat(ids("xyz")).isEmpty();
+    }
+
+    // JUnit test for paging through ranked search results
+    @DisplayName("JUnit test for paging through ranked search results")
+    @Test
+    public void givenManyMatches_whenSearchWithOffset_thenReturnThatPage() {
+        // given-precondition or setup
+        load(new EmployeeView(1L, "Ramesh", "One", "one@gmail.com", 0),
+                new EmployeeView(2L, "Ramesh", "Two", "two@gmail.com", 0),
+                new EmployeeView(3L, "Ramesh", "Three", "three@gmail.com", 0));
+
+        // when-action or behaviour that we are going to test
+        EmployeeSearchResult result = searchIndex.search("ramesh", 1, 1).orElseThrow();
+
+        // then-verity the result
+        Assertions.assertThat(result.employees()).extracting(EmployeeView::id).containsExactly(2L);
+        Assertions.assertThat(result.total()).isEqualTo(3);
+    }
+
+    // JUnit test for keeping the index current from change events
+    @DisplayName("JUnit test for keeping the index current from change events")
+    @Test
+    public void givenChangeEvents_whenSearch_thenSeeCreatesUpdatesPatchesAndDeletes() {
+        // given-precondition or setup
+        load(new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0),
+                new EmployeeView(2L, "Suresh", "basya", "suresh@gmail.com", 0));
+
+        // when-action or behaviour that we are going to test
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.created(
+                Employee.builder().id(3L).firstName("John").lastName("Cena").email("cena@gmail.com").build()));
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.updated(
+                Employee.builder().id(1L).firstName("Ram").lastName("Fadatare").email("ram@gmail.com").version(1).build()));
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.patched(2L, Employee.builder().lastName("Kumar").build(), 1));
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.deleted(3L));
+
+        // then-verity the result
+        Assertions.assertThat(ids("ramesh")).isEmpty();
+        Assertions.assertThat(ids("ram")).containsExactly(1L);
+        Assertions.assertThat(ids("basya")).isEmpty();
+        Assertions.assertThat(searchIndex.search("suresh kumar", 0, 10).orElseThrow().employees())
+                .containsExactly(new EmployeeView(2L, "Suresh", "Kumar", "suresh@gmail.com", 1));
+        Assertions.assertThat(ids("cena")).isEmpty();
+        Assertions.assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    // JUnit test for the event of an update that arrives after the delete of the same employee
+    @DisplayName("JUnit test for the event of an update that arrives after the delete of the same employee")
+    @Test
+    public void givenDeletedEmployee_whenUpdatedEventArrivesLate_thenStayDeleted() {
+        // given-precondition or setup
+        load(new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0));
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // when-action or behaviour that we are going to test
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.updated(
+                Employee.builder().id(1L).firstName("Ram").lastName("Fadatare").email("ram@gmail.com").version(1).build()));
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.patched(1L, Employee.builder().lastName("Kumar").build(), 2));
+
+        // then-verity the result
+        Assertions.assertThat(ids("ram")).isEmpty();
+        Assertions.assertThat(ids("fadatare")).isEmpty();
+        Assertions.assertThat(searchIndex.size()).isZero();
+    }
+
+    // JUnit test for a startup row older than an already indexed change
+    @DisplayName("JUnit test for a startup row older than an already indexed change")
+    @Test
+    public void givenNewerChangeDuringLoad_whenLoad_thenKeepNewerVersion() {
+        // given-precondition or setup
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.updated(
+                Employee.builder().id(1L).firstName("Ram").lastName("Fadatare").email("ram@gmail.com").version(1).build()));
+
+        // when-action or behaviour that we are going to test
+        load(new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0));
+
+        // then-verity the result
+        Assertions.assertThat(ids("ramesh")).isEmpty();
+        Assertions.assertThat(ids("ram")).containsExactly(1L);
+    }
+
+    // JUnit test for patches of employees the startup stream returns later
+    @DisplayName("JUnit test for patches of employees the startup stream returns later")
+    @Test
+    public void givenPatchDuringLoad_whenLoad_thenApplyPatchOnce() {
+        // given-precondition or setup
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.patched(1L, Employee.builder().lastName("Kumar").build(), 1));
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.patched(2L, Employee.builder().firstName("Suri").build(), 1));
+
+        // when-action or behaviour that we are going to test
+        // 1 as it was before the patch, 2 already patched and changed again since
+        load(new EmployeeView(1L, "Ramesh", "Fadatare", "ramesh@gmail.com", 0),
+                new EmployeeView(2L, "Sura", "basya", "suresh@gmail.com", 2));
+
+        // then-verity the result
+        Assertions.assertThat(searchIndex.search("ramesh kumar", 0, 10).orElseThrow().employees())
+                .containsExactly(new EmployeeView(1L, "Ramesh", "Kumar", "ramesh@gmail.com", 1));
+        Assertions.assertThat(ids("fadatare")).isEmpty();
+        Assertions.assertThat(ids("sura")).containsExactly(2L);
+        Assertions.assertThat(ids("suri")).isEmpty();
+    }
+
+    private void load(EmployeeView... employees) {
+        BDDMockito.given(employeeRepository.streamAllViews()).willReturn(Stream.of(employees));
+        searchIndex.load();
+    }
+
+    private List<Long> ids(String query) {
+        return searchIndex.search(query, 0, 10).orElseThrow().employees().stream().map(EmployeeView::id).toList();
+    }
+}
@@ -0,0 +1,192 @@
+package net.javaguides.springboot.service.support;
+
+import net.javaguides.springboot.dto.PendingEmployee;
+import net.javaguides.springboot.exception.ResourceNotException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeWriteBehindTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    private EmployeeWriteBehind writeBehind;
+
+    @BeforeEach
+    public void setup() {
+        writeBehind = new EmployeeWriteBehind(employeeService, employeeRepository, emailFilter, 2, 50, Duration.ofMillis(10));
+    }
+
+    // JUnit test for offer when the queue is full
+    @DisplayName("JUnit test for offer when the queue is full")
+    @Test
+    public void givenFullQueue_whenOffer_thenReturnEmpty() {
+        // given-precondition or setup
+        writeBehind.offer(employee("suresh@gmail.com"));
+        writeBehind.offer(employee("john@gmail.com"));
+
+        // when-action or behaviour that we are going to test
+        Optional<PendingEmployee> pending = writeBehind.offer(employee("undertaker@gmail.com"));
+
+        // then-verity the result
+        Assertions.assertThat(pending).isEmpty();
+    }
+
+    // JUnit test for offer with an email that is already queued
+    @DisplayName("JUnit test for offer with an email that is already queued")
+    @Test
+    public void givenQueuedEmail_whenOffer_thenThrowsException() {
+        // given-precondition or setup
+        writeBehind.offer(employee("suresh@gmail.com"));
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotException.class, () ->
+                writeBehind.offer(employee("SURESH@gmail.com")));
+    }
+
+    // JUnit test for offer with an email that is already stored
+    @DisplayName("JUnit test for offer with an email that is already stored")
+    @Test
+    public void givenStoredEmail_whenOffer_thenThrowsException() {
+        // given-precondition or setup
+        Employee employee = employee("suresh@gmail.com");
+        BDDMockito.given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
+        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotException.class, () -> writeBehind.offer(employee));
+    }
+
+    // JUnit test for flush of a batch
+    @DisplayName("JUnit test for flush inserting the whole batch at once")
+    @Test
+    public void givenBatch_whenFlush_thenSaveEmployeesOnceAndMarkCreated() {
+        // given-precondition or setup
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        givenSaveEmployeesAssignsIds();
+
+        // when-action or behaviour that we are going to test
+        writeBehind.flush(List.of(new EmployeeWriteBehind.PendingCreate(first, employee("suresh@gmail.com")),
+                new EmployeeWriteBehind.PendingCreate(second, employee("john@gmail.com"))));
+
+        // then-verity the result
+        Assertions.assertThat(writeBehind.getStatus(first)).contains(PendingEmployee.created(first, 1L));
+        Assertions.assertThat(writeBehind.getStatus(second)).contains(PendingEmployee.created(second, 2L));
+        Mockito.verify(employeeService, Mockito.never()).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    // JUnit test for flush of a batch the database rejects
+    @DisplayName("JUnit test for flush retrying a rejected batch one employee at a time")
+    @Test
+    public void givenRejectedBatch_whenFlush_thenOnlyBadEmployeeFails() {
+        // given-precondition or setup
+        UUID good = UUID.randomUUID();
+        UUID bad = UUID.randomUUID();
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willThrow(new ResourceNotException("Employee already exist with one of the given emails"));
+        BDDMockito.given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("john@gmail.com")) {
+                throw new ResourceNotException("Employee already exist with given email: john@gmail.com");
+            }
+            employee.setId(7L);
+            return employee;
+        });
+
+        // when-action or behaviour that we are going to test
+        writeBehind.flush(List.of(new EmployeeWriteBehind.PendingCreate(good, employee("suresh@gmail.com")),
+                new EmployeeWriteBehind.PendingCreate(bad, employee("john@gmail.com"))));
+
+        // then-verity the result
+        Assertions.assertThat(writeBehind.getStatus(good)).contains(PendingEmployee.created(good, 7L));
+        Assertions.assertThat(writeBehind.getStatus(bad)).get()
+                .extracting(PendingEmployee::status).isEqualTo(PendingEmployee.Status.FAILED);
+    }
+
+    // JUnit test for the background flusher
+    @DisplayName("JUnit test for the background flusher draining queued creates")
+    @Test
+    public void givenStartedFlusher_whenOffer_thenEmployeeIsCreated() throws InterruptedException {
+        // given-precondition or setup
+        givenSaveEmployeesAssignsIds();
+        writeBehind.start();
+
+        // when-action or behaviour that we are going to test
+        PendingEmployee pending = writeBehind.offer(employee("suresh@gmail.com")).orElseThrow();
+        // stop drains what is still queued before returning
+        writeBehind.stop();
+
+        // then-verity the result
+        Assertions.assertThat(pending.status()).isEqualTo(PendingEmployee.Status.QUEUED);
+        Assertions.assertThat(writeBehind.getStatus(pending.ticket())).get()
+                .extracting(PendingEmployee::status).isEqualTo(PendingEmployee.Status.CREATED);
+    }
+
+    // JUnit test for offer once the flusher is stopping
+    @DisplayName("JUnit test for offer rejecting creates once stop has begun")
+    @Test
+    public void givenStoppedFlusher_whenOffer_thenThrowsException() {
+        // given-precondition or setup
+        writeBehind.start();
+        writeBehind.stop();
+
+        // when-action or behaviour that we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(RejectedExecutionException.class, () ->
+                writeBehind.offer(employee("suresh@gmail.com")));
+
+        // then-verity the result
+        Mockito.verify(employeeService, Mockito.never()).saveEmployees(ArgumentMatchers.anyList());
+    }
+
+    // JUnit test for the lifecycle phase
+    @DisplayName("JUnit test for the flusher stopping strictly after the web server")
+    @Test
+    public void givenWriteBehind_whenGetPhase_thenBelowWebServerPhase() {
+        // when-action or behaviour that we are going to test
+        int phase = writeBehind.getPhase();
+
+        // then-verity the result
+        // phase of Spring Boot's WebServerStartStopLifecycle, lower phases start earlier and stop later
+        Assertions.assertThat(phase).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    private void givenSaveEmployeesAssignsIds() {
+        AtomicLong ids = new AtomicLong();
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(ids.incrementAndGet()));
+            return employees;
+        });
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder().firstName("Suresh").lastName("basya").email(email).build();
+    }
+}